@@ -0,0 +1,259 @@
+package com.hotel.reservations.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cache en mémoire borné (éviction LRU) avec durée de vie des entrées.
+ *
+ * Une entrée expirée reste servie pendant la fenêtre de péremption tolérée
+ * (stale-while-revalidate) pendant qu'un rechargement s'exécute en arrière-plan.
+ * Les chargements concurrents d'une même clé sont regroupés en un seul appel ; un
+ * chargement commencé avant une invalidation ne remet pas sa valeur dans le cache.
+ *
+ * Les valeurs sont partagées entre tous les appelants sans copie : elles doivent être
+ * traitées en lecture seule.
+ */
+public class CacheLocal<K, V> {
+
+    private static final Logger LOGGER = Logger.getLogger(CacheLocal.class.getName());
+
+    private final String nom;
+    private final int tailleMax;
+    private final long dureeVie;
+    private final long dureePeremption;
+    private final Executor executor;
+
+    private final Map<K, Entree<V>> entrees;
+    /** Protège entrees ; un verrou plutôt que synchronized pour ne pas épingler un thread virtuel. */
+    private final ReentrantLock verrou = new ReentrantLock();
+    private final Map<K, CompletableFuture<V>> chargementsEnCours = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong hitsPerimes = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong chargements = new AtomicLong();
+    private final AtomicLong echecsChargement = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param nom nom du cache (journalisation)
+     * @param tailleMax nombre maximum d'entrées
+     * @param dureeVie durée de vie d'une entrée en millisecondes
+     * @param dureePeremption durée supplémentaire pendant laquelle une entrée expirée peut être servie
+     * @param executor exécuteur des rechargements en arrière-plan
+     */
+    public CacheLocal(String nom, int tailleMax, long dureeVie, long dureePeremption, Executor executor) {
+        this.nom = nom;
+        this.tailleMax = tailleMax;
+        this.dureeVie = dureeVie;
+        this.dureePeremption = dureePeremption;
+        this.executor = executor;
+        this.entrees = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entree<V>> eldest) {
+                if (size() > CacheLocal.this.tailleMax) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Retourne la valeur associée à la clé, en la chargeant si nécessaire.
+     * Une valeur {@code null} retournée par le chargeur n'est pas mise en cache.
+     */
+    public V get(K cle, Function<K, V> chargeur) {
+        long maintenant = System.currentTimeMillis();
+        Entree<V> entree;
+        verrou.lock();
+        try {
+            entree = entrees.get(cle);
+        } finally {
+            verrou.unlock();
+        }
+
+        if (entree != null) {
+            if (maintenant < entree.expiration) {
+                hits.incrementAndGet();
+                return entree.valeur;
+            }
+            if (maintenant < entree.expiration + dureePeremption) {
+                hitsPerimes.incrementAndGet();
+                rechargerEnArrierePlan(cle, chargeur);
+                return entree.valeur;
+            }
+        }
+
+        misses.incrementAndGet();
+        return attendre(charger(cle, chargeur));
+    }
+
+    /**
+     * Retourne la valeur si elle est présente et non expirée, sans chargement.
+     */
+    public V getSiPresent(K cle) {
+        verrou.lock();
+        try {
+            Entree<V> entree = entrees.get(cle);
+            if (entree != null && System.currentTimeMillis() < entree.expiration) {
+                return entree.valeur;
+            }
+            return null;
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    public void put(K cle, V valeur) {
+        if (valeur == null) {
+            return;
+        }
+        verrou.lock();
+        try {
+            entrees.put(cle, new Entree<>(valeur, System.currentTimeMillis() + dureeVie));
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    public void invalider(K cle) {
+        verrou.lock();
+        try {
+            generation.incrementAndGet();
+            entrees.remove(cle);
+        } finally {
+            verrou.unlock();
+        }
+        chargementsEnCours.remove(cle);
+    }
+
+    public void invaliderTout() {
+        verrou.lock();
+        try {
+            generation.incrementAndGet();
+            entrees.clear();
+        } finally {
+            verrou.unlock();
+        }
+        chargementsEnCours.clear();
+    }
+
+    public int taille() {
+        verrou.lock();
+        try {
+            return entrees.size();
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Retourne les compteurs du cache.
+     */
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("taille", taille());
+        metriques.put("tailleMax", tailleMax);
+        metriques.put("hits", hits.get());
+        metriques.put("hitsPerimes", hitsPerimes.get());
+        metriques.put("misses", misses.get());
+        metriques.put("chargements", chargements.get());
+        metriques.put("echecsChargement", echecsChargement.get());
+        metriques.put("evictions", evictions.get());
+        return metriques;
+    }
+
+    // --- Méthodes privées ---
+
+    /**
+     * Lance (ou rejoint) le chargement de la clé. Le premier appelant exécute le chargeur
+     * dans son propre thread, les suivants attendent son résultat.
+     */
+    private CompletableFuture<V> charger(K cle, Function<K, V> chargeur) {
+        CompletableFuture<V> nouveau = new CompletableFuture<>();
+        CompletableFuture<V> existant = chargementsEnCours.putIfAbsent(cle, nouveau);
+        if (existant != null) {
+            return existant;
+        }
+
+        long generationDebut = generation.get();
+        try {
+            chargements.incrementAndGet();
+            V valeur = chargeur.apply(cle);
+            if (valeur != null) {
+                verrou.lock();
+                try {
+                    // Invalidation pendant le chargement : la valeur lue peut être obsolète
+                    if (generation.get() == generationDebut) {
+                        entrees.put(cle, new Entree<>(valeur, System.currentTimeMillis() + dureeVie));
+                    }
+                } finally {
+                    verrou.unlock();
+                }
+            }
+            nouveau.complete(valeur);
+        } catch (Throwable e) {
+            // Erreur comprise : les appelants regroupés ne doivent pas attendre indéfiniment
+            echecsChargement.incrementAndGet();
+            nouveau.completeExceptionally(e);
+        } finally {
+            chargementsEnCours.remove(cle, nouveau);
+        }
+        return nouveau;
+    }
+
+    private void rechargerEnArrierePlan(K cle, Function<K, V> chargeur) {
+        if (chargementsEnCours.containsKey(cle)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    charger(cle, chargeur).join();
+                } catch (CompletionException e) {
+                    LOGGER.log(Level.FINE, "Échec du rechargement de " + cle + " dans le cache " + nom, e.getCause());
+                }
+            });
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.FINE, "Rechargement en arrière-plan refusé pour le cache " + nom, e);
+        }
+    }
+
+    private static <V> V attendre(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static final class Entree<V> {
+
+        private final V valeur;
+        private final long expiration;
+
+        private Entree(V valeur, long expiration) {
+            this.valeur = valeur;
+            this.expiration = expiration;
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.hotel.reservations.client;
+
+import com.hotel.reservations.client.PoolConnexionsHttp.BailConnexion;
+import com.hotel.reservations.config.AppConfig;
+import com.hotel.reservations.exception.ServiceExterneException;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cache HTTP partagé des réponses des services externes relayées par les proxys.
+ *
+ * La fraîcheur d'une réponse suit les en-têtes Cache-Control (s-maxage, max-age,
+ * no-cache, no-store, private) du service ; une réponse expirée est revalidée par une
+ * requête conditionnelle (If-None-Match / If-Modified-Since). Les requêtes simultanées
+ * sur une même URL sont regroupées en un seul appel. Si le service est en erreur, une
+ * réponse expirée reste servie pendant la fenêtre de péremption configurée.
+ *
+ * Seules les réponses dont la taille (Content-Length) est connue et ne dépasse pas
+ * cache.http.taille-max-corps sont lues en mémoire. Les autres ne sont pas lues : l'URL
+ * est relayée en flux par le proxy, sans passer par le cache, pendant un temps.
+ */
+@ApplicationScoped
+public class CacheReponsesHttp {
+
+    private static final Logger LOGGER = Logger.getLogger(CacheReponsesHttp.class.getName());
+
+    /** Durée pendant laquelle une URL à réponse trop volumineuse est relayée sans le cache. */
+    private static final long DUREE_RELAIS_DIRECT = 600_000;
+
+    @Inject
+    private AppConfig config;
+
+    @Inject
+    private PoolConnexionsHttp pool;
+
+    private final Map<String, ReponseCachee> entrees = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<ReponseCachee>> appelsEnCours = new ConcurrentHashMap<>();
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+    private final Map<String, Long> relaisDirectJusqua = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong telechargements = new AtomicLong();
+    private final AtomicLong regroupements = new AtomicLong();
+    private final AtomicLong perimesSurErreur = new AtomicLong();
+    private final AtomicLong echecs = new AtomicLong();
+    private final AtomicLong relaisDirects = new AtomicLong();
+
+    /**
+     * Retourne la réponse du service pour l'URL, depuis le cache si elle est fraîche,
+     * ou null si la réponse est trop volumineuse pour être conservée : l'appelant la
+     * relaie alors directement en flux.
+     *
+     * @throws ServiceExterneException si le service est injoignable et qu'aucune réponse
+     *         périmée ne peut être servie
+     */
+    public ReponseCachee obtenir(String url) {
+        Long relaisJusqua = relaisDirectJusqua.get(url);
+        if (relaisJusqua != null) {
+            if (System.currentTimeMillis() < relaisJusqua) {
+                relaisDirects.incrementAndGet();
+                return null;
+            }
+            relaisDirectJusqua.remove(url, relaisJusqua);
+        }
+
+        ReponseCachee entree = entrees.get(url);
+        if (entree != null && entree.estFraiche()) {
+            hits.incrementAndGet();
+            return entree;
+        }
+
+        CompletableFuture<ReponseCachee> nouveau = new CompletableFuture<>();
+        CompletableFuture<ReponseCachee> existant = appelsEnCours.putIfAbsent(url, nouveau);
+        if (existant != null) {
+            regroupements.incrementAndGet();
+            return attendre(existant);
+        }
+
+        try {
+            nouveau.complete(charger(url, entree));
+        } catch (RuntimeException | Error e) {
+            nouveau.completeExceptionally(e);
+        } finally {
+            appelsEnCours.remove(url, nouveau);
+        }
+        return attendre(nouveau);
+    }
+
+    /**
+     * Retire une URL du cache. Un chargement en cours pour cette URL n'y remettra pas
+     * la réponse obtenue (génération incrémentée).
+     */
+    public void invalider(String url) {
+        generations.merge(url, 1L, Long::sum);
+        appelsEnCours.remove(url);
+        entrees.remove(url);
+    }
+
+    /**
+     * Retourne les compteurs du cache.
+     */
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("entrees", entrees.size());
+        metriques.put("hits", hits.get());
+        metriques.put("revalidations", revalidations.get());
+        metriques.put("telechargements", telechargements.get());
+        metriques.put("regroupements", regroupements.get());
+        metriques.put("perimesSurErreur", perimesSurErreur.get());
+        metriques.put("echecs", echecs.get());
+        metriques.put("relaisDirects", relaisDirects.get());
+        return metriques;
+    }
+
+    // --- Méthodes privées ---
+
+    /**
+     * Télécharge ou revalide la réponse ; en cas d'erreur du service, sert la réponse
+     * connue si elle est encore dans la fenêtre de péremption.
+     */
+    private ReponseCachee charger(String url, ReponseCachee connue) {
+        long generation = generations.getOrDefault(url, 0L);
+        try (BailConnexion bail = pool.louer(url)) {
+            var requete = bail.cible(url)
+                    .request(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.ACCEPT_ENCODING, "gzip");
+            if (connue != null && connue.etag != null) {
+                requete.header(HttpHeaders.IF_NONE_MATCH, connue.etag);
+            } else if (connue != null && connue.lastModified != null) {
+                requete.header(HttpHeaders.IF_MODIFIED_SINCE, connue.lastModified);
+            }
+            Response response = requete.get();
+
+            if (response.getStatus() == 304 && connue != null) {
+                String cacheControl = response.getHeaderString(HttpHeaders.CACHE_CONTROL);
+                response.close();
+                revalidations.incrementAndGet();
+                ReponseCachee revalidee = connue.revalidee(dureeFraicheur(cacheControl, connue.cacheControl));
+                stocker(url, generation, revalidee);
+                return revalidee;
+            }
+            if (response.getStatus() >= 500) {
+                response.close();
+                throw new ServiceExterneException(url, "Erreur HTTP " + response.getStatus());
+            }
+
+            int longueur = response.getLength();
+            if (response.getStatus() == 200 && (longueur < 0 || longueur > config.getCacheHttpTailleMaxCorps())) {
+                // Taille inconnue ou excessive : corps non lu, relais en flux par l'appelant
+                response.close();
+                entrees.remove(url);
+                relaisDirectJusqua.put(url, System.currentTimeMillis() + DUREE_RELAIS_DIRECT);
+                relaisDirects.incrementAndGet();
+                LOGGER.info("Réponse de " + url + " trop volumineuse pour le cache (" + longueur
+                        + " octets) : relais direct pendant " + DUREE_RELAIS_DIRECT + " ms");
+                return null;
+            }
+
+            telechargements.incrementAndGet();
+            ReponseCachee recue = lire(response);
+            if (recue.status == 200 && recue.fraicheJusqua >= 0) {
+                stocker(url, generation, recue);
+            } else {
+                entrees.remove(url);
+            }
+            return recue;
+        } catch (RuntimeException e) {
+            if (connue != null && connue.peutServirSurErreur(config.getCacheHttpPeremptionErreur())) {
+                perimesSurErreur.incrementAndGet();
+                LOGGER.log(Level.WARNING, "Service indisponible, réponse périmée servie pour " + url + ": " + e.getMessage());
+                return connue;
+            }
+            echecs.incrementAndGet();
+            throw e instanceof ServiceExterneException ? e : new ServiceExterneException(url, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Conserve la réponse sauf si l'URL a été invalidée depuis le début du chargement.
+     */
+    private void stocker(String url, long generation, ReponseCachee reponse) {
+        entrees.compute(url, (cle, actuelle) ->
+                generations.getOrDefault(url, 0L) == generation ? reponse : actuelle);
+    }
+
+    private ReponseCachee lire(Response response) {
+        String cacheControl = response.getHeaderString(HttpHeaders.CACHE_CONTROL);
+        long duree = dureeFraicheur(cacheControl, null);
+        return new ReponseCachee(
+                response.getStatus(),
+                response.getHeaderString(HttpHeaders.CONTENT_TYPE),
+                response.getHeaderString(HttpHeaders.CONTENT_ENCODING),
+                response.getHeaderString(HttpHeaders.ETAG),
+                response.getHeaderString(HttpHeaders.LAST_MODIFIED),
+                cacheControl,
+                response.hasEntity() ? response.readEntity(byte[].class) : new byte[0],
+                duree);
+    }
+
+    /**
+     * Durée de fraîcheur (ms) selon Cache-Control : -1 si la réponse ne doit pas être
+     * conservée, 0 si elle doit être revalidée à chaque utilisation.
+     */
+    private long dureeFraicheur(String cacheControl, String precedent) {
+        String valeur = cacheControl != null ? cacheControl : precedent;
+        if (valeur == null) {
+            return config.getCacheHttpDureeVieDefaut();
+        }
+        long maxAge = -2;
+        long sMaxAge = -2;
+        for (String directive : valeur.toLowerCase(Locale.ROOT).split(",")) {
+            String d = directive.trim();
+            if (d.equals("no-store") || d.equals("private")) {
+                return -1;
+            } else if (d.equals("no-cache")) {
+                return 0;
+            } else if (d.startsWith("s-maxage=")) {
+                sMaxAge = secondes(d.substring("s-maxage=".length()));
+            } else if (d.startsWith("max-age=")) {
+                maxAge = secondes(d.substring("max-age=".length()));
+            }
+        }
+        if (sMaxAge >= 0) {
+            return sMaxAge * 1000;
+        }
+        if (maxAge >= 0) {
+            return maxAge * 1000;
+        }
+        return config.getCacheHttpDureeVieDefaut();
+    }
+
+    private static long secondes(String valeur) {
+        try {
+            return Math.max(0, Long.parseLong(valeur.replace("\"", "").trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static ReponseCachee attendre(CompletableFuture<ReponseCachee> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Réponse conservée : statut, en-têtes utiles et corps tel que reçu (éventuellement compressé).
+     */
+    public static final class ReponseCachee {
+
+        private final int status;
+        private final String contentType;
+        private final String contentEncoding;
+        private final String etag;
+        private final String lastModified;
+        private final String cacheControl;
+        private final byte[] corps;
+        private final long dateReception;
+        private final long fraicheJusqua;
+
+        private ReponseCachee(int status, String contentType, String contentEncoding, String etag,
+                              String lastModified, String cacheControl, byte[] corps, long dureeFraicheur) {
+            this.status = status;
+            this.contentType = contentType;
+            this.contentEncoding = contentEncoding;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.cacheControl = cacheControl;
+            this.corps = corps;
+            this.dateReception = System.currentTimeMillis();
+            this.fraicheJusqua = dureeFraicheur < 0 ? -1 : dateReception + dureeFraicheur;
+        }
+
+        private ReponseCachee revalidee(long dureeFraicheur) {
+            return new ReponseCachee(status, contentType, contentEncoding, etag, lastModified, cacheControl,
+                    corps, dureeFraicheur);
+        }
+
+        private boolean estFraiche() {
+            return System.currentTimeMillis() < fraicheJusqua;
+        }
+
+        private boolean peutServirSurErreur(long fenetre) {
+            return status == 200 && System.currentTimeMillis() < Math.max(fraicheJusqua, dateReception) + fenetre;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getContentEncoding() {
+            return contentEncoding;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        public String getCacheControl() {
+            return cacheControl;
+        }
+
+        public byte[] getCorps() {
+            return corps;
+        }
+
+        /**
+         * Âge de la réponse en secondes (en-tête Age).
+         */
+        public long getAge() {
+            return (System.currentTimeMillis() - dateReception) / 1000;
+        }
+    }
+}
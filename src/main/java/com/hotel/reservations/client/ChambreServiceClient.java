@@ -1,16 +1,23 @@
 package com.hotel.reservations.client;
 
+import com.hotel.reservations.cache.CacheLocal;
+import com.hotel.reservations.client.PoolConnexionsHttp.BailConnexion;
+import com.hotel.reservations.concurrence.ExecuteurTaches;
 import com.hotel.reservations.config.AppConfig;
 import com.hotel.reservations.dto.ChambreDTO;
 import com.hotel.reservations.exception.ServiceExterneException;
+import com.hotel.reservations.resilience.Couverture;
+import com.hotel.reservations.resilience.Disjoncteur;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.json.Json;
 import jakarta.json.JsonObject;
 import jakarta.json.JsonReader;
-import jakarta.ws.rs.client.Client;
-import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.json.JsonValue;
 import jakarta.ws.rs.client.Entity;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
@@ -18,7 +25,17 @@ import jakarta.ws.rs.core.Response;
 import java.io.StringReader;
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -30,11 +47,47 @@ public class ChambreServiceClient {
     
     private static final Logger LOGGER = Logger.getLogger(ChambreServiceClient.class.getName());
     
+    private static final String CLE_TOUTES_CHAMBRES = "toutes";
+    private static final int NOMBRE_CHAMBRES_MOCK = 20;
+    
     @Inject
     private AppConfig config;
     
+    @Inject
+    private PoolConnexionsHttp pool;
+    
+    @Inject
+    private ExecuteurTaches executeurTaches;
+    
+    @Resource
+    private ManagedScheduledExecutorService scheduler;
+    
+    private CacheLocal<Long, ChambreDTO> cacheChambres;
+    private CacheLocal<String, List<ChambreDTO>> cacheListeChambres;
+    private Disjoncteur disjoncteur;
+    private Couverture couverture;
+    private RegroupeurAppels<Long, ChambreDTO> regroupeur;
+    
+    @PostConstruct
+    public void init() {
+        cacheChambres = new CacheLocal<>("chambres",
+                config.getCacheChambresTailleMax(),
+                config.getCacheChambresDureeVie(),
+                config.getCacheChambresPeremption(),
+                executeurTaches);
+        cacheListeChambres = new CacheLocal<>("listeChambres", 1,
+                config.getCacheChambresDureeVie(),
+                config.getCacheChambresPeremption(),
+                executeurTaches);
+        disjoncteur = new Disjoncteur("Chambres", config);
+        couverture = new Couverture("Chambres", config, executeurTaches);
+        regroupeur = new RegroupeurAppels<>("Chambres", this::chargerLotChambres,
+                id -> cacheChambres.get(id, this::chargerChambre), config, scheduler, executeurTaches);
+    }
+    
     /**
-     * Récupère les informations d'une chambre.
+     * Récupère les informations d'une chambre (depuis le cache si possible).
+     * L'instance retournée est partagée par le cache : ne pas la modifier.
      */
     public ChambreDTO getChambre(Long chambreId) {
         if (config.isModeDeveloppement()) {
@@ -42,40 +95,100 @@ public class ChambreServiceClient {
             return creerChambreMock(chambreId);
         }
         
-        Client client = null;
         try {
-            client = ClientBuilder.newBuilder()
-                    .connectTimeout(config.getConnectTimeout(), TimeUnit.MILLISECONDS)
-                    .readTimeout(config.getReadTimeout(), TimeUnit.MILLISECONDS)
-                    .build();
-            
-            String url = config.getChambreServiceUrl() + "/" + chambreId;
-            LOGGER.info("Appel GET: " + url);
-            
-            Response response = client.target(url)
-                    .request(MediaType.APPLICATION_JSON)
-                    .get();
-            
-            if (response.getStatus() == 200) {
-                String json = response.readEntity(String.class);
-                return parseChambreFromJson(json);
-            } else if (response.getStatus() == 404) {
-                LOGGER.warning("Chambre non trouvée: " + chambreId);
-                return null;
-            } else {
-                LOGGER.warning("Erreur lors de la récupération de la chambre: " + response.getStatus());
-                throw new ServiceExterneException("Service Chambres", 
-                    "Erreur HTTP " + response.getStatus());
-            }
+            return cacheChambres.get(chambreId, this::chargerChambre);
         } catch (Exception e) {
             LOGGER.log(Level.WARNING, "Erreur de communication avec le service Chambres", e);
             // En cas d'erreur, retourner un mock pour ne pas bloquer
             return creerChambreMock(chambreId);
-        } finally {
-            if (client != null) {
-                client.close();
+        }
+    }
+    
+    /**
+     * Récupère plusieurs chambres en un minimum d'appels : les identifiants sont
+     * dédoublonnés, servis depuis le cache si possible et les autres regroupés avec
+     * ceux des requêtes simultanées. Les chambres inconnues ou en échec sont absentes
+     * du résultat.
+     */
+    public Map<Long, ChambreDTO> getChambres(Collection<Long> chambreIds) {
+        return getChambres(chambreIds, new HashSet<>());
+    }
+    
+    /**
+     * Comme {@link #getChambres(Collection)}, en ajoutant à {@code introuvables} les chambres
+     * que le service a déclarées inconnues (les chambres en échec n'y figurent pas).
+     */
+    public Map<Long, ChambreDTO> getChambres(Collection<Long> chambreIds, Set<Long> introuvables) {
+        Map<Long, ChambreDTO> chambres = new LinkedHashMap<>();
+        List<Long> manquantes = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(chambreIds)) {
+            if (id == null) {
+                continue;
+            }
+            ChambreDTO chambre = config.isModeDeveloppement() ? creerChambreMock(id) : cacheChambres.getSiPresent(id);
+            if (chambre != null) {
+                chambres.put(id, chambre);
+            } else {
+                manquantes.add(id);
             }
         }
+        if (!manquantes.isEmpty()) {
+            chambres.putAll(regroupeur.charger(manquantes, introuvables));
+        }
+        return chambres;
+    }
+    
+    /**
+     * Liste toutes les chambres connues du Service Chambres (depuis le cache si possible).
+     * La liste (non modifiable) et ses chambres sont partagées par le cache.
+     */
+    public List<ChambreDTO> listerChambres() {
+        if (config.isModeDeveloppement()) {
+            LOGGER.info("[MODE DEV] Simulation liste des chambres");
+            List<ChambreDTO> chambres = new ArrayList<>();
+            for (long id = 1; id <= NOMBRE_CHAMBRES_MOCK; id++) {
+                chambres.add(creerChambreMock(id));
+            }
+            return chambres;
+        }
+        
+        return cacheListeChambres.get(CLE_TOUTES_CHAMBRES, cle -> chargerChambres());
+    }
+    
+    /**
+     * Invalide l'entrée du cache pour une chambre.
+     */
+    public void invaliderChambre(Long chambreId) {
+        cacheChambres.invalider(chambreId);
+        cacheListeChambres.invaliderTout();
+    }
+    
+    /**
+     * Retourne les compteurs du cache des chambres.
+     */
+    public Map<String, Object> getMetriquesCache() {
+        return cacheChambres.getMetriques();
+    }
+    
+    /**
+     * Retourne les compteurs des chargements groupés de chambres.
+     */
+    public Map<String, Object> getMetriquesRegroupement() {
+        return regroupeur.getMetriques();
+    }
+    
+    /**
+     * Retourne l'état du disjoncteur et de la cloison du service Chambres.
+     */
+    public Map<String, Object> getMetriquesDisjoncteur() {
+        return disjoncteur.getMetriques();
+    }
+    
+    /**
+     * Retourne les compteurs des requêtes de couverture vers le service Chambres.
+     */
+    public Map<String, Object> getMetriquesCouverture() {
+        return couverture.getMetriques();
     }
     
     /**
@@ -87,82 +200,186 @@ public class ChambreServiceClient {
             return true; // Toujours disponible en mode dev
         }
         
-        Client client = null;
+        String url = config.getChambreServiceUrl() + "/" + chambreId + "/disponibilite";
         try {
-            client = ClientBuilder.newBuilder()
-                    .connectTimeout(config.getConnectTimeout(), TimeUnit.MILLISECONDS)
-                    .readTimeout(config.getReadTimeout(), TimeUnit.MILLISECONDS)
-                    .build();
-            
-            String url = config.getChambreServiceUrl() + "/" + chambreId + "/disponibilite";
-            LOGGER.info("Appel GET: " + url);
-            
-            Response response = client.target(url)
-                    .queryParam("dateDebut", dateDebut.toString())
-                    .queryParam("dateFin", dateFin.toString())
-                    .request(MediaType.APPLICATION_JSON)
-                    .get();
-            
-            if (response.getStatus() == 200) {
-                String json = response.readEntity(String.class);
-                try (JsonReader reader = Json.createReader(new StringReader(json))) {
-                    JsonObject obj = reader.readObject();
-                    return obj.getBoolean("disponible", true);
+            return couverture.executer(() -> disjoncteur.executer(() -> {
+                try (BailConnexion bail = pool.louer(url)) {
+                    LOGGER.info("Appel GET: " + url);
+                    
+                    Response response = bail.cible(url)
+                            .queryParam("dateDebut", dateDebut.toString())
+                            .queryParam("dateFin", dateFin.toString())
+                            .request(MediaType.APPLICATION_JSON)
+                            .get();
+                    
+                    if (response.getStatus() == 200) {
+                        String json = response.readEntity(String.class);
+                        try (JsonReader reader = Json.createReader(new StringReader(json))) {
+                            JsonObject obj = reader.readObject();
+                            return obj.getBoolean("disponible", true);
+                        }
+                    } else {
+                        response.close();
+                        if (response.getStatus() >= 500) {
+                            throw new ServiceExterneException("Service Chambres",
+                                "Erreur HTTP " + response.getStatus());
+                        }
+                        LOGGER.warning("Erreur lors de la vérification disponibilité: " + response.getStatus());
+                        return true; // Par défaut, considérer disponible
+                    }
                 }
-            } else {
-                LOGGER.warning("Erreur lors de la vérification disponibilité: " + response.getStatus());
-                return true; // Par défaut, considérer disponible
-            }
+            }));
         } catch (Exception e) {
             LOGGER.log(Level.WARNING, "Erreur de communication avec le service Chambres", e);
             return true; // Par défaut, considérer disponible
-        } finally {
-            if (client != null) {
-                client.close();
-            }
         }
     }
     
     /**
      * Met à jour le statut d'une chambre.
+     * Retourne true si le service Chambres a accepté la mise à jour, false s'il l'a refusée
+     * définitivement (chambre inconnue, statut rejeté : erreur 4xx). Une erreur transitoire
+     * (communication, 5xx, 408/429, disjoncteur ouvert) est propagée : l'envoi peut être retenté.
      */
-    public void mettreAJourStatutChambre(Long chambreId, String nouveauStatut) {
+    public boolean mettreAJourStatutChambre(Long chambreId, String nouveauStatut) {
         if (config.isModeDeveloppement()) {
             LOGGER.info("[MODE DEV] Simulation mise à jour statut chambre ID: " + chambreId + " -> " + nouveauStatut);
-            return;
+            return true;
         }
         
-        Client client = null;
-        try {
-            client = ClientBuilder.newBuilder()
-                    .connectTimeout(config.getConnectTimeout(), TimeUnit.MILLISECONDS)
-                    .readTimeout(config.getReadTimeout(), TimeUnit.MILLISECONDS)
-                    .build();
-            
-            String url = config.getChambreServiceUrl() + "/" + chambreId + "/statut";
-            LOGGER.info("Appel PUT: " + url + " avec statut: " + nouveauStatut);
-            
-            JsonObject payload = Json.createObjectBuilder()
-                    .add("statut", nouveauStatut)
-                    .build();
-            
-            Response response = client.target(url)
-                    .request(MediaType.APPLICATION_JSON)
-                    .put(Entity.json(payload.toString()));
-            
-            if (response.getStatus() >= 200 && response.getStatus() < 300) {
-                LOGGER.info("Statut chambre mis à jour avec succès");
-            } else {
-                LOGGER.warning("Erreur lors de la mise à jour du statut: " + response.getStatus());
+        String url = config.getChambreServiceUrl() + "/" + chambreId + "/statut";
+        return disjoncteur.executer(() -> {
+            try (BailConnexion bail = pool.louer(url)) {
+                LOGGER.info("Appel PUT: " + url + " avec statut: " + nouveauStatut);
+                
+                JsonObject payload = Json.createObjectBuilder()
+                        .add("statut", nouveauStatut)
+                        .build();
+                
+                Response response = bail.cible(url)
+                        .request(MediaType.APPLICATION_JSON)
+                        .put(Entity.json(payload.toString()));
+                response.close();
+                
+                int status = response.getStatus();
+                if (status >= 200 && status < 300) {
+                    LOGGER.info("Statut chambre mis à jour avec succès");
+                    cacheChambres.invalider(chambreId);
+                    return true;
+                } else if (status >= 500 || status == 408 || status == 429) {
+                    throw new ServiceExterneException("Service Chambres",
+                        "Erreur HTTP " + status);
+                } else {
+                    LOGGER.warning("Mise à jour du statut de la chambre " + chambreId + " refusée: " + status);
+                    return false;
+                }
             }
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Erreur de communication avec le service Chambres", e);
-            // Ne pas lever d'exception pour ne pas bloquer la réservation
-        } finally {
-            if (client != null) {
-                client.close();
+        });
+    }
+    
+    /**
+     * Charge une chambre depuis le service externe.
+     * Retourne null si la chambre n'existe pas.
+     */
+    private ChambreDTO chargerChambre(Long chambreId) {
+        String url = config.getChambreServiceUrl() + "/" + chambreId;
+        return couverture.executer(() -> disjoncteur.executer(() -> {
+            try (BailConnexion bail = pool.louer(url)) {
+                LOGGER.info("Appel GET: " + url);
+                
+                Response response = bail.cible(url)
+                        .request(MediaType.APPLICATION_JSON)
+                        .get();
+                
+                if (response.getStatus() == 200) {
+                    String json = response.readEntity(String.class);
+                    return parseChambreFromJson(json);
+                }
+                response.close();
+                if (response.getStatus() == 404) {
+                    LOGGER.warning("Chambre non trouvée: " + chambreId);
+                    return null;
+                } else {
+                    LOGGER.warning("Erreur lors de la récupération de la chambre: " + response.getStatus());
+                    throw new ServiceExterneException("Service Chambres", 
+                        "Erreur HTTP " + response.getStatus());
+                }
             }
-        }
+        }));
+    }
+    
+    /**
+     * Charge la liste complète des chambres depuis le service externe
+     * et alimente au passage le cache unitaire.
+     */
+    private List<ChambreDTO> chargerChambres() {
+        String url = config.getChambreServiceUrl();
+        return disjoncteur.executer(() -> {
+            try (BailConnexion bail = pool.louer(url)) {
+                LOGGER.info("Appel GET: " + url);
+                
+                Response response = bail.cible(url)
+                        .request(MediaType.APPLICATION_JSON)
+                        .get();
+                
+                if (response.getStatus() != 200) {
+                    response.close();
+                    LOGGER.warning("Erreur lors de la récupération des chambres: " + response.getStatus());
+                    throw new ServiceExterneException("Service Chambres", 
+                        "Erreur HTTP " + response.getStatus());
+                }
+                
+                String json = response.readEntity(String.class);
+                List<ChambreDTO> chambres = new ArrayList<>();
+                try (JsonReader reader = Json.createReader(new StringReader(json))) {
+                    for (JsonValue valeur : reader.readArray()) {
+                        ChambreDTO chambre = parseChambre(valeur.asJsonObject());
+                        chambres.add(chambre);
+                        cacheChambres.put(chambre.getId(), chambre);
+                    }
+                }
+                return Collections.unmodifiableList(chambres);
+            }
+        });
+    }
+    
+    /**
+     * Charge un lot de chambres via GET /batch?ids=... et alimente le cache.
+     * Retourne null si le lot est refusé (point d'accès absent ou identifiant invalide).
+     */
+    private Map<Long, ChambreDTO> chargerLotChambres(Set<Long> chambreIds) {
+        String url = config.getChambreServiceUrl() + "/batch";
+        String ids = chambreIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return disjoncteur.executer(() -> {
+            try (BailConnexion bail = pool.louer(url)) {
+                LOGGER.fine("Appel GET: " + url + "?ids=" + ids);
+                
+                Response response = bail.cible(url)
+                        .queryParam("ids", ids)
+                        .request(MediaType.APPLICATION_JSON)
+                        .get();
+                
+                if (RegroupeurAppels.estPointAccesAbsent(response.getStatus())) {
+                    response.close();
+                    return null;
+                }
+                if (response.getStatus() != 200) {
+                    response.close();
+                    throw new ServiceExterneException("Service Chambres", 
+                        "Erreur HTTP " + response.getStatus());
+                }
+                
+                Map<Long, ChambreDTO> chambres = new HashMap<>();
+                try (JsonReader reader = Json.createReader(new StringReader(response.readEntity(String.class)))) {
+                    for (JsonValue valeur : reader.readArray()) {
+                        ChambreDTO chambre = parseChambre(valeur.asJsonObject());
+                        chambres.put(chambre.getId(), chambre);
+                        cacheChambres.put(chambre.getId(), chambre);
+                    }
+                }
+                return chambres;
+            }
+        });
     }
     
     /**
@@ -185,17 +402,20 @@ public class ChambreServiceClient {
      */
     private ChambreDTO parseChambreFromJson(String json) {
         try (JsonReader reader = Json.createReader(new StringReader(json))) {
-            JsonObject obj = reader.readObject();
-            ChambreDTO chambre = new ChambreDTO();
-            chambre.setId(obj.getJsonNumber("id").longValue());
-            chambre.setNumero(obj.getString("numero", null));
-            chambre.setType(obj.getString("type", null));
-            if (obj.containsKey("prixParNuit") && !obj.isNull("prixParNuit")) {
-                chambre.setPrixParNuit(obj.getJsonNumber("prixParNuit").bigDecimalValue());
-            }
-            chambre.setStatut(obj.getString("statut", null));
-            chambre.setDisponible(obj.getBoolean("disponible", true));
-            return chambre;
+            return parseChambre(reader.readObject());
         }
     }
+    
+    private ChambreDTO parseChambre(JsonObject obj) {
+        ChambreDTO chambre = new ChambreDTO();
+        chambre.setId(obj.getJsonNumber("id").longValue());
+        chambre.setNumero(obj.getString("numero", null));
+        chambre.setType(obj.getString("type", null));
+        if (obj.containsKey("prixParNuit") && !obj.isNull("prixParNuit")) {
+            chambre.setPrixParNuit(obj.getJsonNumber("prixParNuit").bigDecimalValue());
+        }
+        chambre.setStatut(obj.getString("statut", null));
+        chambre.setDisponible(obj.getBoolean("disponible", true));
+        return chambre;
+    }
 }
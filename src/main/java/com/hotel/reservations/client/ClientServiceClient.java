@@ -1,22 +1,38 @@
 package com.hotel.reservations.client;
 
+import com.hotel.reservations.cache.CacheLocal;
+import com.hotel.reservations.client.PoolConnexionsHttp.BailConnexion;
+import com.hotel.reservations.concurrence.ExecuteurTaches;
 import com.hotel.reservations.config.AppConfig;
 import com.hotel.reservations.dto.ClientDTO;
 import com.hotel.reservations.exception.ClientNonValideException;
 import com.hotel.reservations.exception.ServiceExterneException;
+import com.hotel.reservations.resilience.Disjoncteur;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.json.Json;
 import jakarta.json.JsonObject;
 import jakarta.json.JsonReader;
-import jakarta.ws.rs.client.Client;
-import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.json.JsonValue;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
 import java.io.StringReader;
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -28,11 +44,47 @@ public class ClientServiceClient {
     
     private static final Logger LOGGER = Logger.getLogger(ClientServiceClient.class.getName());
     
+    private static final int NOMBRE_CLIENTS_MOCK = 20;
+    
     @Inject
     private AppConfig config;
     
+    @Inject
+    private PoolConnexionsHttp pool;
+    
+    @Inject
+    private ExecuteurTaches executeurTaches;
+    
+    @Resource
+    private ManagedScheduledExecutorService scheduler;
+    
+    private CacheLocal<Long, ClientDTO> cacheClients;
+    private CacheLocal<Long, Boolean> clientsInconnus;
+    private Disjoncteur disjoncteur;
+    private RegroupeurAppels<Long, ClientDTO> regroupeur;
+    
+    @PostConstruct
+    public void init() {
+        // Pas de fenêtre de péremption : les frais impayés doivent rester à jour
+        cacheClients = new CacheLocal<>("clients",
+                config.getCacheClientsTailleMax(),
+                config.getCacheClientsDureeVie(),
+                0,
+                executeurTaches);
+        clientsInconnus = new CacheLocal<>("clientsInconnus",
+                config.getCacheClientsTailleMax(),
+                config.getCacheClientsDureeVieNegative(),
+                0,
+                executeurTaches);
+        disjoncteur = new Disjoncteur("Clients", config);
+        regroupeur = new RegroupeurAppels<>("Clients", this::chargerLotClients,
+                this::chargerClientOuNull, config, scheduler, executeurTaches);
+    }
+    
     /**
-     * Récupère les informations d'un client.
+     * Récupère les informations d'un client (depuis le cache si possible).
+     * Un client inconnu du service est mémorisé pour éviter un nouvel aller-retour.
+     * L'instance retournée est partagée par le cache : ne pas la modifier.
      */
     public ClientDTO getClient(Long clientId) {
         if (config.isModeDeveloppement()) {
@@ -40,42 +92,159 @@ public class ClientServiceClient {
             return creerClientMock(clientId);
         }
         
-        Client client = null;
+        if (clientsInconnus.getSiPresent(clientId) != null) {
+            LOGGER.fine("Client inconnu (cache négatif): " + clientId);
+            throw new ClientNonValideException(clientId, "Client non trouvé");
+        }
+        
         try {
-            client = ClientBuilder.newBuilder()
-                    .connectTimeout(config.getConnectTimeout(), TimeUnit.MILLISECONDS)
-                    .readTimeout(config.getReadTimeout(), TimeUnit.MILLISECONDS)
-                    .build();
-            
-            String url = config.getClientServiceUrl() + "/" + clientId;
-            LOGGER.info("Appel GET: " + url);
-            
-            Response response = client.target(url)
-                    .request(MediaType.APPLICATION_JSON)
-                    .get();
-            
-            if (response.getStatus() == 200) {
-                String json = response.readEntity(String.class);
-                return parseClientFromJson(json);
-            } else if (response.getStatus() == 404) {
-                LOGGER.warning("Client non trouvé: " + clientId);
-                throw new ClientNonValideException(clientId, "Client non trouvé");
-            } else {
-                LOGGER.warning("Erreur lors de la récupération du client: " + response.getStatus());
-                throw new ServiceExterneException("Service Clients", 
-                    "Erreur HTTP " + response.getStatus());
-            }
+            return cacheClients.get(clientId, this::chargerClient);
         } catch (ClientNonValideException e) {
             throw e;
         } catch (Exception e) {
             LOGGER.log(Level.WARNING, "Erreur de communication avec le service Clients", e);
             // En cas d'erreur, retourner un mock pour ne pas bloquer
             return creerClientMock(clientId);
-        } finally {
+        }
+    }
+    
+    /**
+     * Récupère plusieurs clients en un minimum d'appels : les identifiants sont
+     * dédoublonnés, servis depuis le cache si possible et les autres regroupés avec
+     * ceux des requêtes simultanées. Les clients inconnus ou en échec sont absents
+     * du résultat.
+     */
+    public Map<Long, ClientDTO> getClients(Collection<Long> clientIds) {
+        return getClients(clientIds, new HashSet<>());
+    }
+    
+    /**
+     * Comme {@link #getClients(Collection)}, en ajoutant à {@code introuvables} les clients
+     * que le service a déclarés inconnus (les clients en échec n'y figurent pas).
+     */
+    public Map<Long, ClientDTO> getClients(Collection<Long> clientIds, Set<Long> introuvables) {
+        Map<Long, ClientDTO> clients = new LinkedHashMap<>();
+        List<Long> manquants = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(clientIds)) {
+            if (id == null) {
+                continue;
+            }
+            if (!config.isModeDeveloppement() && clientsInconnus.getSiPresent(id) != null) {
+                introuvables.add(id);
+                continue;
+            }
+            ClientDTO client = config.isModeDeveloppement() ? creerClientMock(id) : cacheClients.getSiPresent(id);
             if (client != null) {
-                client.close();
+                clients.put(id, client);
+            } else {
+                manquants.add(id);
             }
         }
+        if (!manquants.isEmpty()) {
+            clients.putAll(regroupeur.charger(manquants, introuvables));
+        }
+        return clients;
+    }
+    
+    /**
+     * Télécharge la liste complète des clients, sauf si elle n'a pas changé depuis
+     * l'ETag fourni : le résultat est alors marqué inchangé et ne contient aucun client.
+     * Les clients reçus alimentent le cache.
+     *
+     * @param etagConnu ETag de la dernière liste reçue, ou null
+     */
+    public ListeClients listerClients(String etagConnu) {
+        if (config.isModeDeveloppement()) {
+            List<ClientDTO> clients = new ArrayList<>();
+            for (long id = 1; id <= NOMBRE_CLIENTS_MOCK; id++) {
+                clients.add(creerClientMock(id));
+            }
+            return new ListeClients(clients, null, false);
+        }
+        
+        String url = config.getClientServiceUrl();
+        return disjoncteur.executer(() -> {
+            try (BailConnexion bail = pool.louer(url)) {
+                LOGGER.fine("Appel GET: " + url);
+                
+                Response response = bail.cible(url)
+                        .request(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, etagConnu)
+                        .get();
+                
+                if (response.getStatus() == 304) {
+                    response.close();
+                    return new ListeClients(List.of(), etagConnu, true);
+                }
+                if (response.getStatus() != 200) {
+                    response.close();
+                    throw new ServiceExterneException("Service Clients", 
+                        "Erreur HTTP " + response.getStatus());
+                }
+                
+                String etag = response.getHeaderString(HttpHeaders.ETAG);
+                List<ClientDTO> clients = new ArrayList<>();
+                try (JsonReader reader = Json.createReader(new StringReader(response.readEntity(String.class)))) {
+                    for (JsonValue valeur : reader.readArray()) {
+                        ClientDTO client = parseClient(valeur.asJsonObject());
+                        cacheClients.put(client.getId(), client);
+                        clients.add(client);
+                    }
+                }
+                return new ListeClients(clients, etag, false);
+            }
+        });
+    }
+    
+    /**
+     * Recharge un client depuis le service, sans repli sur un client fictif en cas d'erreur.
+     */
+    public ClientDTO rechargerClient(Long clientId) {
+        if (config.isModeDeveloppement()) {
+            return creerClientMock(clientId);
+        }
+        invaliderClient(clientId);
+        return cacheClients.get(clientId, this::chargerClient);
+    }
+    
+    /**
+     * Invalide les entrées du cache (positives et négatives) pour un client.
+     */
+    public void invaliderClient(Long clientId) {
+        cacheClients.invalider(clientId);
+        clientsInconnus.invalider(clientId);
+    }
+    
+    /**
+     * Vide entièrement le cache des clients.
+     */
+    public void invaliderTousLesClients() {
+        cacheClients.invaliderTout();
+        clientsInconnus.invaliderTout();
+    }
+    
+    /**
+     * Retourne les compteurs des caches clients.
+     */
+    public Map<String, Object> getMetriquesCache() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("clients", cacheClients.getMetriques());
+        metriques.put("clientsInconnus", clientsInconnus.getMetriques());
+        return metriques;
+    }
+    
+    /**
+     * Retourne les compteurs des chargements groupés de clients.
+     */
+    public Map<String, Object> getMetriquesRegroupement() {
+        return regroupeur.getMetriques();
+    }
+    
+    /**
+     * Retourne l'état du disjoncteur et de la cloison du service Clients.
+     */
+    public Map<String, Object> getMetriquesDisjoncteur() {
+        return disjoncteur.getMetriques();
     }
     
     /**
@@ -87,38 +256,37 @@ public class ClientServiceClient {
             return true; // Client valide en mode dev
         }
         
-        Client client = null;
+        String url = config.getClientServiceUrl() + "/" + clientId + "/antecedents";
         try {
-            client = ClientBuilder.newBuilder()
-                    .connectTimeout(config.getConnectTimeout(), TimeUnit.MILLISECONDS)
-                    .readTimeout(config.getReadTimeout(), TimeUnit.MILLISECONDS)
-                    .build();
-            
-            String url = config.getClientServiceUrl() + "/" + clientId + "/antecedents";
-            LOGGER.info("Appel GET: " + url);
-            
-            Response response = client.target(url)
-                    .request(MediaType.APPLICATION_JSON)
-                    .get();
-            
-            if (response.getStatus() == 200) {
-                String json = response.readEntity(String.class);
-                try (JsonReader reader = Json.createReader(new StringReader(json))) {
-                    JsonObject obj = reader.readObject();
-                    boolean fraisImpayes = obj.getBoolean("fraisImpayes", false);
-                    return !fraisImpayes; // Valide si pas de frais impayés
+            return disjoncteur.executer(() -> {
+                try (BailConnexion bail = pool.louer(url)) {
+                    LOGGER.info("Appel GET: " + url);
+                    
+                    Response response = bail.cible(url)
+                            .request(MediaType.APPLICATION_JSON)
+                            .get();
+                    
+                    if (response.getStatus() == 200) {
+                        String json = response.readEntity(String.class);
+                        try (JsonReader reader = Json.createReader(new StringReader(json))) {
+                            JsonObject obj = reader.readObject();
+                            boolean fraisImpayes = obj.getBoolean("fraisImpayes", false);
+                            return !fraisImpayes; // Valide si pas de frais impayés
+                        }
+                    } else {
+                        response.close();
+                        if (response.getStatus() >= 500) {
+                            throw new ServiceExterneException("Service Clients",
+                                "Erreur HTTP " + response.getStatus());
+                        }
+                        LOGGER.warning("Erreur lors de la vérification des antécédents: " + response.getStatus());
+                        return true; // Par défaut, considérer comme valide
+                    }
                 }
-            } else {
-                LOGGER.warning("Erreur lors de la vérification des antécédents: " + response.getStatus());
-                return true; // Par défaut, considérer comme valide
-            }
+            });
         } catch (Exception e) {
             LOGGER.log(Level.WARNING, "Erreur de communication avec le service Clients", e);
             return true; // Par défaut, considérer comme valide
-        } finally {
-            if (client != null) {
-                client.close();
-            }
         }
     }
     
@@ -131,31 +299,118 @@ public class ClientServiceClient {
             return true;
         }
         
-        Client client = null;
+        if (clientsInconnus.getSiPresent(clientId) != null) {
+            return false;
+        }
+        if (cacheClients.getSiPresent(clientId) != null) {
+            return true;
+        }
+        
+        String url = config.getClientServiceUrl() + "/" + clientId;
         try {
-            client = ClientBuilder.newBuilder()
-                    .connectTimeout(config.getConnectTimeout(), TimeUnit.MILLISECONDS)
-                    .readTimeout(config.getReadTimeout(), TimeUnit.MILLISECONDS)
-                    .build();
-            
-            String url = config.getClientServiceUrl() + "/" + clientId;
-            LOGGER.info("Appel HEAD: " + url);
-            
-            Response response = client.target(url)
-                    .request()
-                    .head();
-            
-            return response.getStatus() == 200;
+            return disjoncteur.executer(() -> {
+                try (BailConnexion bail = pool.louer(url)) {
+                    LOGGER.info("Appel HEAD: " + url);
+                    
+                    Response response = bail.cible(url)
+                            .request()
+                            .head();
+                    
+                    response.close();
+                    if (response.getStatus() >= 500) {
+                        throw new ServiceExterneException("Service Clients",
+                            "Erreur HTTP " + response.getStatus());
+                    }
+                    return response.getStatus() == 200;
+                }
+            });
         } catch (Exception e) {
             LOGGER.log(Level.WARNING, "Erreur de communication avec le service Clients", e);
             return true; // Par défaut, considérer comme existant
-        } finally {
-            if (client != null) {
-                client.close();
+        }
+    }
+    
+    /**
+     * Charge un client depuis le service externe.
+     */
+    private ClientDTO chargerClient(Long clientId) {
+        String url = config.getClientServiceUrl() + "/" + clientId;
+        return disjoncteur.executer(() -> {
+            try (BailConnexion bail = pool.louer(url)) {
+                LOGGER.info("Appel GET: " + url);
+                
+                Response response = bail.cible(url)
+                        .request(MediaType.APPLICATION_JSON)
+                        .get();
+                
+                if (response.getStatus() == 200) {
+                    String json = response.readEntity(String.class);
+                    return parseClientFromJson(json);
+                }
+                response.close();
+                if (response.getStatus() == 404) {
+                    LOGGER.warning("Client non trouvé: " + clientId);
+                    clientsInconnus.put(clientId, Boolean.TRUE);
+                    throw new ClientNonValideException(clientId, "Client non trouvé");
+                } else {
+                    LOGGER.warning("Erreur lors de la récupération du client: " + response.getStatus());
+                    throw new ServiceExterneException("Service Clients", 
+                        "Erreur HTTP " + response.getStatus());
+                }
             }
+        });
+    }
+    
+    /**
+     * Chargement unitaire pour le regroupement : null si le client est inconnu (404).
+     */
+    private ClientDTO chargerClientOuNull(Long clientId) {
+        try {
+            return cacheClients.get(clientId, this::chargerClient);
+        } catch (ClientNonValideException e) {
+            return null;
         }
     }
     
+    /**
+     * Charge un lot de clients via GET /batch?ids=... et alimente le cache.
+     * Retourne null si le lot est refusé (point d'accès absent ou identifiant invalide).
+     */
+    private Map<Long, ClientDTO> chargerLotClients(Set<Long> clientIds) {
+        String url = config.getClientServiceUrl() + "/batch";
+        String ids = clientIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return disjoncteur.executer(() -> {
+            try (BailConnexion bail = pool.louer(url)) {
+                LOGGER.fine("Appel GET: " + url + "?ids=" + ids);
+                
+                Response response = bail.cible(url)
+                        .queryParam("ids", ids)
+                        .request(MediaType.APPLICATION_JSON)
+                        .get();
+                
+                if (RegroupeurAppels.estPointAccesAbsent(response.getStatus())) {
+                    response.close();
+                    return null;
+                }
+                if (response.getStatus() != 200) {
+                    response.close();
+                    throw new ServiceExterneException("Service Clients", 
+                        "Erreur HTTP " + response.getStatus());
+                }
+                
+                Map<Long, ClientDTO> clients = new HashMap<>();
+                try (JsonReader reader = Json.createReader(new StringReader(response.readEntity(String.class)))) {
+                    for (JsonValue valeur : reader.readArray()) {
+                        ClientDTO client = parseClient(valeur.asJsonObject());
+                        clients.put(client.getId(), client);
+                        cacheClients.put(client.getId(), client);
+                    }
+                }
+                return clients;
+            }
+        });
+    }
+    
     /**
      * Crée un client mock pour le mode développement.
      */
@@ -176,16 +431,50 @@ public class ClientServiceClient {
      */
     private ClientDTO parseClientFromJson(String json) {
         try (JsonReader reader = Json.createReader(new StringReader(json))) {
-            JsonObject obj = reader.readObject();
-            ClientDTO clientDTO = new ClientDTO();
-            clientDTO.setId(obj.getJsonNumber("id").longValue());
-            clientDTO.setNom(obj.getString("nom", null));
-            clientDTO.setPrenom(obj.getString("prenom", null));
-            clientDTO.setEmail(obj.getString("email", null));
-            clientDTO.setTelephone(obj.getString("telephone", null));
-            clientDTO.setFraisImpayes(obj.getBoolean("fraisImpayes", false));
-            clientDTO.setNombreSejours(obj.getInt("nombreSejours", 0));
-            return clientDTO;
+            return parseClient(reader.readObject());
+        }
+    }
+    
+    private ClientDTO parseClient(JsonObject obj) {
+        ClientDTO clientDTO = new ClientDTO();
+        clientDTO.setId(obj.getJsonNumber("id").longValue());
+        clientDTO.setNom(obj.getString("nom", null));
+        clientDTO.setPrenom(obj.getString("prenom", null));
+        clientDTO.setEmail(obj.getString("email", null));
+        clientDTO.setTelephone(obj.getString("telephone", null));
+        clientDTO.setFraisImpayes(obj.getBoolean("fraisImpayes", false));
+        clientDTO.setNombreSejours(obj.getInt("nombreSejours", 0));
+        return clientDTO;
+    }
+    
+    /**
+     * Liste des clients téléchargée, avec l'ETag permettant une requête conditionnelle.
+     */
+    public static final class ListeClients {
+        
+        private final List<ClientDTO> clients;
+        private final String etag;
+        private final boolean inchangee;
+        
+        private ListeClients(List<ClientDTO> clients, String etag, boolean inchangee) {
+            this.clients = clients;
+            this.etag = etag;
+            this.inchangee = inchangee;
+        }
+        
+        public List<ClientDTO> getClients() {
+            return clients;
+        }
+        
+        public String getEtag() {
+            return etag;
+        }
+        
+        /**
+         * Vrai si le service a répondu 304 : la liste connue est toujours à jour.
+         */
+        public boolean isInchangee() {
+            return inchangee;
         }
     }
 }
@@ -0,0 +1,241 @@
+package com.hotel.reservations.client;
+
+import com.hotel.reservations.config.AppConfig;
+import com.hotel.reservations.exception.AppelRefuseException;
+import com.hotel.reservations.exception.PoolSatureException;
+import com.hotel.reservations.resilience.Echeance;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.client.WebTarget;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Accès partagé aux services externes : un seul client JAX-RS pour tous les appels et
+ * une limite de connexions simultanées par route (hôte:port).
+ *
+ * La réutilisation des sockets (keep-alive) est assurée par le connecteur par défaut
+ * de Jersey, qui s'appuie sur le cache de connexions de HttpURLConnection. Ce cache se
+ * règle par propriétés système : elles sont positionnées au démarrage depuis service.pool.*,
+ * sauf si la JVM les définit déjà, et leurs valeurs effectives figurent dans les métriques.
+ * Elles ne sont lues qu'au premier appel HTTP de la JVM. Cette classe ne gère pas
+ * elle-même les sockets : elle borne le nombre d'appels simultanés par route et les
+ * délais de chaque appel.
+ */
+@ApplicationScoped
+public class PoolConnexionsHttp {
+
+    private static final Logger LOGGER = Logger.getLogger(PoolConnexionsHttp.class.getName());
+
+    /** Délais de connexion et de lecture par requête (propriétés du client Jersey). */
+    private static final String PROPRIETE_CONNECT_TIMEOUT = "jersey.config.client.connectTimeout";
+    private static final String PROPRIETE_READ_TIMEOUT = "jersey.config.client.readTimeout";
+
+    /** Réglages du cache de connexions de HttpURLConnection (propriétés système). */
+    private static final String PROPRIETE_KEEP_ALIVE = "http.keepAlive";
+    private static final String PROPRIETE_CONNEXIONS_MAX = "http.maxConnections";
+    private static final String PROPRIETE_DUREE_SERVEUR = "jdk.http.keepAlive.time.server";
+
+    @Inject
+    private AppConfig config;
+
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+    private volatile Client client;
+
+    @PostConstruct
+    public void init() {
+        configurerKeepAlive();
+        client = ClientBuilder.newBuilder()
+                .connectTimeout(config.getConnectTimeout(), TimeUnit.MILLISECONDS)
+                .readTimeout(config.getReadTimeout(), TimeUnit.MILLISECONDS)
+                .build();
+        LOGGER.info("Client HTTP partagé initialisé (connexions simultanées max par route: "
+                + config.getPoolMaxParRoute() + ", keep-alive: " + getKeepAlive() + ")");
+    }
+
+    @PreDestroy
+    public void fermer() {
+        Client ancien = client;
+        client = null;
+        if (ancien != null) {
+            ancien.close();
+        }
+    }
+
+    /**
+     * Réserve une connexion vers l'URL donnée. Le bail doit être fermé une fois
+     * la réponse entièrement lue. Sous une échéance, l'attente d'une connexion et les
+     * délais de la requête sont bornés au temps restant.
+     *
+     * @throws PoolSatureException si aucune connexion ne se libère à temps
+     */
+    public BailConnexion louer(String url) {
+        Route route = routes.computeIfAbsent(cleRoute(url), cle -> new Route(cle, config.getPoolMaxParRoute()));
+        Echeance.verifier(route.cle);
+
+        route.enAttente.incrementAndGet();
+        try {
+            if (!route.permis.tryAcquire(Echeance.borner(config.getConnectTimeout()), TimeUnit.MILLISECONDS)) {
+                route.refus.incrementAndGet();
+                throw new PoolSatureException(route.cle,
+                    "Aucune connexion disponible vers " + route.cle + " (limite atteinte)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppelRefuseException(route.cle, "Attente d'une connexion interrompue");
+        } finally {
+            route.enAttente.decrementAndGet();
+        }
+
+        Client courant = client;
+        if (courant == null) {
+            route.permis.release();
+            throw new AppelRefuseException(route.cle, "Client HTTP fermé");
+        }
+        route.baux.incrementAndGet();
+        return new BailConnexion(route, courant, config.getConnectTimeout(), config.getReadTimeout());
+    }
+
+    /**
+     * Retourne les réglages keep-alive effectifs, puis, par route, les appels en cours,
+     * en attente d'une connexion et refusés.
+     */
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("keepAlive", getKeepAlive());
+        int enCours = 0;
+        int enAttente = 0;
+        Map<String, Object> parRoute = new TreeMap<>();
+        for (Route route : routes.values()) {
+            enCours += route.enCours();
+            enAttente += route.enAttente.get();
+            parRoute.put(route.cle, route.getMetriques());
+        }
+        metriques.put("enCours", enCours);
+        metriques.put("enAttente", enAttente);
+        metriques.put("routes", parRoute);
+        return metriques;
+    }
+
+    // --- Méthodes privées ---
+
+    /**
+     * Positionne les propriétés keep-alive absentes de la JVM. Le nombre de connexions
+     * inactives conservées par route suit la limite d'appels simultanés.
+     */
+    private void configurerKeepAlive() {
+        definirSiAbsente(PROPRIETE_KEEP_ALIVE, String.valueOf(config.isPoolKeepAlive()));
+        definirSiAbsente(PROPRIETE_CONNEXIONS_MAX, String.valueOf(config.getPoolMaxParRoute()));
+        definirSiAbsente(PROPRIETE_DUREE_SERVEUR, String.valueOf(config.getPoolKeepAliveDuree()));
+    }
+
+    private static void definirSiAbsente(String propriete, String valeur) {
+        String existante = System.getProperty(propriete);
+        if (existante == null) {
+            System.setProperty(propriete, valeur);
+        } else if (!existante.equals(valeur)) {
+            LOGGER.info("Propriété " + propriete + " définie par la JVM (" + existante
+                    + "), valeur configurée ignorée : " + valeur);
+        }
+    }
+
+    private static Map<String, Object> getKeepAlive() {
+        Map<String, Object> keepAlive = new LinkedHashMap<>();
+        keepAlive.put(PROPRIETE_KEEP_ALIVE, System.getProperty(PROPRIETE_KEEP_ALIVE));
+        keepAlive.put(PROPRIETE_CONNEXIONS_MAX, System.getProperty(PROPRIETE_CONNEXIONS_MAX));
+        keepAlive.put(PROPRIETE_DUREE_SERVEUR, System.getProperty(PROPRIETE_DUREE_SERVEUR));
+        return keepAlive;
+    }
+
+    private static String cleRoute(String url) {
+        URI uri = URI.create(url);
+        int port = uri.getPort();
+        if (port < 0) {
+            port = "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        }
+        return uri.getHost() + ":" + port;
+    }
+
+    /**
+     * Bail sur une connexion d'une route, à fermer après lecture de la réponse.
+     */
+    public static final class BailConnexion implements AutoCloseable {
+
+        private final Route route;
+        private final Client client;
+        private final int connectTimeout;
+        private final int readTimeout;
+        private final AtomicBoolean libere = new AtomicBoolean(false);
+
+        private BailConnexion(Route route, Client client, int connectTimeout, int readTimeout) {
+            this.route = route;
+            this.client = client;
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+        }
+
+        public WebTarget cible(String url) {
+            WebTarget cible = client.target(url);
+            if (Echeance.courante() != null) {
+                cible.property(PROPRIETE_CONNECT_TIMEOUT, (int) Echeance.borner(connectTimeout))
+                     .property(PROPRIETE_READ_TIMEOUT, (int) Echeance.borner(readTimeout));
+            }
+            return cible;
+        }
+
+        @Override
+        public void close() {
+            if (libere.compareAndSet(false, true)) {
+                route.permis.release();
+            }
+        }
+    }
+
+    /**
+     * Limite et compteurs d'une route (hôte:port).
+     */
+    private static final class Route {
+
+        private final String cle;
+        private final int max;
+        private final Semaphore permis;
+        private final AtomicInteger enAttente = new AtomicInteger();
+        private final AtomicLong baux = new AtomicLong();
+        private final AtomicLong refus = new AtomicLong();
+
+        private Route(String cle, int max) {
+            this.cle = cle;
+            this.max = max;
+            this.permis = new Semaphore(max, true);
+        }
+
+        private int enCours() {
+            return max - permis.availablePermits();
+        }
+
+        private Map<String, Object> getMetriques() {
+            Map<String, Object> metriques = new LinkedHashMap<>();
+            metriques.put("max", max);
+            metriques.put("enCours", enCours());
+            metriques.put("enAttente", enAttente.get());
+            metriques.put("baux", baux.get());
+            metriques.put("refus", refus.get());
+            return metriques;
+        }
+    }
+}
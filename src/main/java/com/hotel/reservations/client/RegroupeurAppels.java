@@ -0,0 +1,353 @@
+package com.hotel.reservations.client;
+
+import com.hotel.reservations.config.AppConfig;
+import com.hotel.reservations.resilience.Echeance;
+
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Regroupement des lectures par identifiant vers un service externe.
+ *
+ * Les identifiants demandés sont dédoublonnés ; ceux demandés simultanément pendant
+ * la fenêtre de regroupement partagent un seul appel au point d'accès par lot du
+ * service (ou la même réponse s'ils sont déjà en cours de chargement). Si le point
+ * d'accès par lot ne répond pas (lot refusé, point d'accès absent), les identifiants du
+ * lot sont chargés un par un avec un parallélisme borné ; après plusieurs refus
+ * consécutifs, le point d'accès par lot n'est retenté que plus tard.
+ */
+public class RegroupeurAppels<K, V> {
+
+    private static final Logger LOGGER = Logger.getLogger(RegroupeurAppels.class.getName());
+
+    /** Délai avant de retenter le point d'accès par lot après une absence constatée. */
+    private static final long DELAI_NOUVEL_ESSAI_LOT = 600_000;
+
+    /** Refus consécutifs du point d'accès par lot avant de le considérer absent. */
+    private static final int REFUS_AVANT_ABSENCE = 3;
+
+    private final String nom;
+    private final Function<Set<K>, Map<K, V>> chargeurLot;
+    private final Function<K, V> chargeurUnitaire;
+    private final long fenetre;
+    private final int tailleMax;
+    private final int parallelisme;
+    private final long attenteMax;
+    private final ManagedScheduledExecutorService scheduler;
+    private final Executor executeur;
+
+    private final Map<K, CompletableFuture<V>> enCours = new ConcurrentHashMap<>();
+    // Clés en attente du prochain envoi (protégées par verrou, qui ne bloque pas le
+    // porteur d'un thread virtuel contrairement à synchronized)
+    private final ReentrantLock verrou = new ReentrantLock();
+    private final Set<K> aEnvoyer = new LinkedHashSet<>();
+    private boolean envoiPlanifie;
+    private volatile long lotIndisponibleJusqua;
+    private final AtomicInteger refusLotConsecutifs = new AtomicInteger();
+
+    private final AtomicLong demandes = new AtomicLong();
+    private final AtomicLong clesDemandees = new AtomicLong();
+    private final AtomicLong clesPartagees = new AtomicLong();
+    private final AtomicLong appelsLot = new AtomicLong();
+    private final AtomicLong appelsUnitaires = new AtomicLong();
+
+    /**
+     * @param nom nom du service (journalisation, métriques)
+     * @param chargeurLot appel au point d'accès par lot ; retourne null si le lot est refusé
+     * @param chargeurUnitaire chargement d'un seul identifiant (repli) ; retourne null si l'identifiant
+     *                         est inconnu du service et lève une exception en cas d'échec
+     * @param config paramètres lot.* et délais des appels (attente maximale sans échéance)
+     * @param scheduler planification des envois
+     * @param executeur exécution des chargements
+     */
+    public RegroupeurAppels(String nom, Function<Set<K>, Map<K, V>> chargeurLot, Function<K, V> chargeurUnitaire,
+                            AppConfig config, ManagedScheduledExecutorService scheduler, Executor executeur) {
+        this.nom = nom;
+        this.chargeurLot = chargeurLot;
+        this.chargeurUnitaire = chargeurUnitaire;
+        this.fenetre = config.getLotFenetre();
+        this.tailleMax = Math.max(1, config.getLotTailleMax());
+        this.parallelisme = Math.max(1, config.getLotParallelisme());
+        this.attenteMax = fenetre + config.getConnectTimeout() + config.getReadTimeout();
+        this.scheduler = scheduler;
+        this.executeur = executeur;
+    }
+
+    /**
+     * Charge les identifiants donnés. Les identifiants inconnus du service ou en échec
+     * sont absents du résultat. L'attente est bornée par l'échéance courante et, à défaut,
+     * par la durée d'un appel (fenêtre + délais de connexion et de lecture).
+     */
+    public Map<K, V> charger(Collection<K> cles) {
+        return charger(cles, new HashSet<>());
+    }
+
+    /**
+     * Comme {@link #charger(Collection)}, en ajoutant à {@code introuvables} les identifiants
+     * que le service a déclarés inconnus (absents de la réponse par lot, ou chargement
+     * unitaire sans résultat). Les identifiants en échec ou pas encore chargés n'y figurent pas.
+     */
+    public Map<K, V> charger(Collection<K> cles, Set<K> introuvables) {
+        Map<K, CompletableFuture<V>> futures = demander(cles);
+        if (futures.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+
+        CompletableFuture<Void> toutes = CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]));
+        try {
+            toutes.get(Echeance.borner(attenteMax), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Les identifiants en échec ou pas encore chargés sont omis
+            LOGGER.log(Level.FINE, "Chargement groupé incomplet (" + nom + ")", e);
+        }
+
+        Map<K, V> resultat = new LinkedHashMap<>();
+        futures.forEach((cle, future) -> {
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                V valeur = future.join();
+                if (valeur != null) {
+                    resultat.put(cle, valeur);
+                } else {
+                    introuvables.add(cle);
+                }
+            }
+        });
+        return resultat;
+    }
+
+    /**
+     * Statuts pour lesquels le lot est rejoué en chargements unitaires : point d'accès
+     * absent (« batch » pris pour un identifiant, méthode non supportée...) ou lot refusé
+     * à cause d'un identifiant invalide. Seuls des refus répétés désactivent le lot.
+     */
+    static boolean estPointAccesAbsent(int status) {
+        return status == 400 || status == 404 || status == 405 || status == 501;
+    }
+
+    /**
+     * Retourne les compteurs du regroupement.
+     */
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("demandes", demandes.get());
+        metriques.put("clesDemandees", clesDemandees.get());
+        metriques.put("clesPartagees", clesPartagees.get());
+        metriques.put("appelsLot", appelsLot.get());
+        metriques.put("appelsUnitaires", appelsUnitaires.get());
+        metriques.put("lotDisponible", System.currentTimeMillis() >= lotIndisponibleJusqua);
+        metriques.put("enCours", enCours.size());
+        return metriques;
+    }
+
+    // --- Méthodes privées ---
+
+    /**
+     * Associe à chaque identifiant le chargement en cours ou un nouveau chargement,
+     * envoyé à la fin de la fenêtre ou dès qu'un lot complet est atteint.
+     */
+    private Map<K, CompletableFuture<V>> demander(Collection<K> cles) {
+        demandes.incrementAndGet();
+        Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+        boolean planifier = false;
+        boolean envoyerMaintenant;
+        verrou.lock();
+        try {
+            for (K cle : cles) {
+                if (cle == null || futures.containsKey(cle)) {
+                    continue;
+                }
+                clesDemandees.incrementAndGet();
+                CompletableFuture<V> future = enCours.get(cle);
+                if (future == null) {
+                    future = new CompletableFuture<>();
+                    enCours.put(cle, future);
+                    aEnvoyer.add(cle);
+                } else {
+                    clesPartagees.incrementAndGet();
+                }
+                futures.put(cle, future);
+            }
+            envoyerMaintenant = aEnvoyer.size() >= tailleMax;
+            if (!envoyerMaintenant && !aEnvoyer.isEmpty() && !envoiPlanifie) {
+                envoiPlanifie = true;
+                planifier = true;
+            }
+        } finally {
+            verrou.unlock();
+        }
+
+        if (envoyerMaintenant) {
+            envoyer();
+        } else if (planifier) {
+            try {
+                scheduler.schedule(this::envoyer, fenetre, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                LOGGER.log(Level.WARNING, "Planification du chargement groupé refusée (" + nom + ")", e);
+                abandonnerEnAttente(e);
+            }
+        }
+        return futures;
+    }
+
+    /**
+     * Fait échouer les identifiants en attente d'envoi (planification impossible).
+     */
+    private void abandonnerEnAttente(Throwable cause) {
+        List<K> cles;
+        verrou.lock();
+        try {
+            envoiPlanifie = false;
+            cles = new ArrayList<>(aEnvoyer);
+            aEnvoyer.clear();
+        } finally {
+            verrou.unlock();
+        }
+        echouer(cles, cause);
+    }
+
+    /**
+     * Découpe les identifiants en attente en lots et lance leur chargement.
+     */
+    private void envoyer() {
+        List<Set<K>> lots = new ArrayList<>();
+        verrou.lock();
+        try {
+            envoiPlanifie = false;
+            Iterator<K> iterateur = aEnvoyer.iterator();
+            Set<K> lot = new LinkedHashSet<>();
+            while (iterateur.hasNext()) {
+                lot.add(iterateur.next());
+                iterateur.remove();
+                if (lot.size() == tailleMax) {
+                    lots.add(lot);
+                    lot = new LinkedHashSet<>();
+                }
+            }
+            if (!lot.isEmpty()) {
+                lots.add(lot);
+            }
+        } finally {
+            verrou.unlock();
+        }
+        for (Set<K> lot : lots) {
+            try {
+                executeur.execute(() -> executer(lot));
+            } catch (RejectedExecutionException e) {
+                LOGGER.log(Level.WARNING, "Chargement groupé refusé (" + nom + ", " + lot.size() + " identifiants)", e);
+                echouer(lot, e);
+            }
+        }
+    }
+
+    private void executer(Set<K> lot) {
+        Map<K, V> valeurs = null;
+        try {
+            if (System.currentTimeMillis() >= lotIndisponibleJusqua) {
+                appelsLot.incrementAndGet();
+                valeurs = chargeurLot.apply(lot);
+                if (valeurs != null) {
+                    refusLotConsecutifs.set(0);
+                } else if (refusLotConsecutifs.incrementAndGet() >= REFUS_AVANT_ABSENCE) {
+                    refusLotConsecutifs.set(0);
+                    lotIndisponibleJusqua = System.currentTimeMillis() + DELAI_NOUVEL_ESSAI_LOT;
+                    LOGGER.info("Point d'accès par lot du service " + nom
+                            + " refusé " + REFUS_AVANT_ABSENCE + " fois : chargement unitaire en parallèle");
+                }
+            }
+        } catch (Throwable e) {
+            LOGGER.log(Level.WARNING, "Chargement groupé en échec (" + nom + ", " + lot.size() + " identifiants)", e);
+            echouer(lot, e);
+            return;
+        }
+        if (valeurs == null) {
+            chargerEnParallele(lot);
+            return;
+        }
+        for (K cle : lot) {
+            completer(cle, valeurs.get(cle));
+        }
+    }
+
+    /**
+     * Charge les identifiants un par un, répartis sur au plus {@code parallelisme} tâches.
+     * Chaque tâche complète ses identifiants sans attendre les autres : aucun thread de
+     * l'exécuteur n'est bloqué sur une tâche soumise au même exécuteur.
+     */
+    private void chargerEnParallele(Set<K> lot) {
+        int nombreGroupes = Math.min(parallelisme, lot.size());
+        List<List<K>> groupes = new ArrayList<>();
+        for (int i = 0; i < nombreGroupes; i++) {
+            groupes.add(new ArrayList<>());
+        }
+        int i = 0;
+        for (K cle : lot) {
+            groupes.get(i++ % nombreGroupes).add(cle);
+        }
+
+        for (List<K> groupe : groupes.subList(1, nombreGroupes)) {
+            try {
+                executeur.execute(() -> chargerGroupe(groupe));
+            } catch (RejectedExecutionException e) {
+                // Exécuteur saturé : le groupe est chargé par la tâche courante
+                chargerGroupe(groupe);
+            }
+        }
+        chargerGroupe(groupes.get(0));
+    }
+
+    private void chargerGroupe(List<K> groupe) {
+        for (K cle : groupe) {
+            appelsUnitaires.incrementAndGet();
+            V valeur;
+            try {
+                valeur = chargeurUnitaire.apply(cle);
+            } catch (Throwable e) {
+                // Échec distinct d'un identifiant inconnu (null) : la clé n'est pas déclarée introuvable
+                LOGGER.log(Level.FINE, "Chargement de " + cle + " impossible (" + nom + ")", e);
+                echouer(List.of(cle), e);
+                continue;
+            }
+            completer(cle, valeur);
+        }
+    }
+
+    private void completer(K cle, V valeur) {
+        CompletableFuture<V> future = enCours.remove(cle);
+        if (future != null) {
+            future.complete(valeur);
+        }
+    }
+
+    private void echouer(Collection<K> cles, Throwable cause) {
+        for (K cle : cles) {
+            CompletableFuture<V> future = enCours.remove(cle);
+            if (future != null) {
+                future.completeExceptionally(cause);
+            }
+        }
+    }
+}
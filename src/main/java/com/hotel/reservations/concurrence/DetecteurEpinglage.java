@@ -0,0 +1,193 @@
+package com.hotel.reservations.concurrence;
+
+import com.hotel.reservations.config.AppConfig;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Détection des threads virtuels épinglés sur leur thread porteur.
+ *
+ * Un thread virtuel qui se bloque dans une section synchronized ou dans un appel natif
+ * (pilote JDBC notamment) garde son thread porteur : sous charge, quelques sites de ce
+ * genre suffisent à épuiser les porteurs. L'événement JFR jdk.VirtualThreadPinned est
+ * suivi en continu ; chaque site (première méthode de l'application dans la pile) est
+ * journalisé avec sa pile la première fois, puis seulement compté.
+ */
+@ApplicationScoped
+public class DetecteurEpinglage {
+
+    private static final Logger LOGGER = Logger.getLogger(DetecteurEpinglage.class.getName());
+
+    private static final String EVENEMENT_EPINGLAGE = "jdk.VirtualThreadPinned";
+    private static final String PAQUETAGE_APPLICATION = "com.hotel.reservations.";
+    private static final int SITES_MAX = 100;
+    private static final int FRAMES_JOURNALISEES = 20;
+
+    /** Paquetages dont la présence dans la pile désigne un accès JDBC. */
+    private static final List<String> PAQUETAGES_JDBC = List.of(
+            "java.sql.", "javax.sql.", "org.apache.derby.", "com.sun.gjc.",
+            "org.eclipse.persistence.internal.databaseaccess.");
+
+    @Inject
+    private AppConfig config;
+
+    @Inject
+    private ExecuteurTaches executeurTaches;
+
+    private RecordingStream enregistrement;
+
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+    private final AtomicLong epinglages = new AtomicLong();
+    private final AtomicLong epinglagesJdbc = new AtomicLong();
+
+    /**
+     * Démarre la détection au lancement si les threads virtuels sont utilisés.
+     */
+    public void demarrer(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        if (!executeurTaches.isVirtuel() || !config.isDetectionEpinglageActif()) {
+            return;
+        }
+        try {
+            RecordingStream flux = new RecordingStream();
+            flux.enable(EVENEMENT_EPINGLAGE)
+                .withThreshold(Duration.ofMillis(config.getSeuilEpinglage()))
+                .withStackTrace();
+            flux.onEvent(EVENEMENT_EPINGLAGE, this::enregistrer);
+            flux.startAsync();
+            enregistrement = flux;
+            LOGGER.info("Détection des threads virtuels épinglés active (seuil: " + config.getSeuilEpinglage() + " ms)");
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Détection des threads virtuels épinglés indisponible (JFR)", e);
+        }
+    }
+
+    @PreDestroy
+    public void arreter() {
+        if (enregistrement != null) {
+            enregistrement.close();
+        }
+    }
+
+    /**
+     * Retourne le nombre d'épinglages détectés et les sites les plus fréquents.
+     */
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("actif", enregistrement != null);
+        metriques.put("epinglages", epinglages.get());
+        metriques.put("epinglagesJdbc", epinglagesJdbc.get());
+        metriques.put("epinglagesSynchronized", epinglages.get() - epinglagesJdbc.get());
+        Map<String, Object> parSite = new LinkedHashMap<>();
+        sites.values().stream()
+                .sorted(Comparator.comparingLong((Site site) -> site.occurrences.get()).reversed())
+                .limit(10)
+                .forEach(site -> parSite.put(site.cle, site.getMetriques()));
+        metriques.put("sites", parSite);
+        return metriques;
+    }
+
+    // --- Méthodes privées ---
+
+    private void enregistrer(RecordedEvent evenement) {
+        RecordedStackTrace pile = evenement.getStackTrace();
+        List<RecordedFrame> frames = pile != null ? pile.getFrames() : List.of();
+        boolean jdbc = estJdbc(frames);
+        long dureeMs = evenement.getDuration().toMillis();
+
+        epinglages.incrementAndGet();
+        if (jdbc) {
+            epinglagesJdbc.incrementAndGet();
+        }
+
+        String cle = (jdbc ? "jdbc " : "synchronized ") + site(frames);
+        Site site = sites.get(cle);
+        if (site == null) {
+            if (sites.size() >= SITES_MAX) {
+                cle = "autres";
+            }
+            site = sites.computeIfAbsent(cle, Site::new);
+        }
+        site.dureeTotaleMs.addAndGet(dureeMs);
+        if (site.occurrences.incrementAndGet() == 1) {
+            LOGGER.warning("Thread virtuel épinglé pendant " + dureeMs + " ms (" + cle + ") :" + formater(frames));
+        } else if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine("Thread virtuel épinglé pendant " + dureeMs + " ms (" + cle + ")");
+        }
+    }
+
+    private static boolean estJdbc(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            for (String paquetage : PAQUETAGES_JDBC) {
+                if (type.startsWith(paquetage)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Première méthode de l'application dans la pile, à défaut le sommet de la pile.
+     */
+    private static String site(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            if (frame.getMethod().getType().getName().startsWith(PAQUETAGE_APPLICATION)) {
+                return decrire(frame);
+            }
+        }
+        return frames.isEmpty() ? "inconnu" : decrire(frames.get(0));
+    }
+
+    private static String decrire(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static String formater(List<RecordedFrame> frames) {
+        StringBuilder texte = new StringBuilder();
+        frames.stream().limit(FRAMES_JOURNALISEES).forEach(frame -> texte.append("\n\tat ").append(decrire(frame)));
+        if (frames.size() > FRAMES_JOURNALISEES) {
+            texte.append("\n\t...");
+        }
+        return texte.toString();
+    }
+
+    /**
+     * Compteurs d'un site d'épinglage.
+     */
+    private static final class Site {
+
+        private final String cle;
+        private final AtomicLong occurrences = new AtomicLong();
+        private final AtomicLong dureeTotaleMs = new AtomicLong();
+
+        private Site(String cle) {
+            this.cle = cle;
+        }
+
+        private Map<String, Object> getMetriques() {
+            Map<String, Object> metriques = new LinkedHashMap<>();
+            metriques.put("occurrences", occurrences.get());
+            metriques.put("dureeTotaleMs", dureeTotaleMs.get());
+            return metriques;
+        }
+    }
+}
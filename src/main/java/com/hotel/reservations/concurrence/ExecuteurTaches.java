@@ -0,0 +1,136 @@
+package com.hotel.reservations.concurrence;
+
+import com.hotel.reservations.config.AppConfig;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ContextService;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Exécuteur des traitements de requêtes et des appels aux services externes.
+ *
+ * Par défaut les tâches sont confiées à l'exécuteur géré du serveur. Avec
+ * threads.virtuels.actif (Java 21+), chaque tâche s'exécute sur un thread virtuel : une
+ * tâche en attente d'entrée/sortie libère son thread porteur, si bien que des milliers de
+ * réservations en attente des services externes n'immobilisent plus autant de threads
+ * système. Le contexte du conteneur (nommage JNDI, chargeur de classes, sécurité) est
+ * propagé par le ContextService du serveur.
+ *
+ * Le choix se fait à l'exécution : l'application est compilée pour Java 17 et les threads
+ * virtuels sont créés par réflexion lorsque la JVM du serveur est en version 21 ou plus.
+ */
+@ApplicationScoped
+public class ExecuteurTaches implements Executor {
+
+    private static final Logger LOGGER = Logger.getLogger(ExecuteurTaches.class.getName());
+
+    @Inject
+    private AppConfig config;
+
+    @Resource
+    private ManagedExecutorService executor;
+
+    @Resource
+    private ContextService contextService;
+
+    private ExecutorService executeurVirtuel;
+
+    private final AtomicLong tachesVirtuelles = new AtomicLong();
+    private final AtomicLong tachesGerees = new AtomicLong();
+    private final AtomicInteger virtuellesEnCours = new AtomicInteger();
+
+    @PostConstruct
+    public void init() {
+        if (!config.isThreadsVirtuelsActif()) {
+            return;
+        }
+        try {
+            executeurVirtuel = creerExecuteurVirtuel();
+            LOGGER.info("Traitements et appels aux services externes exécutés sur des threads virtuels");
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Threads virtuels indisponibles (Java 21 requis, version "
+                    + Runtime.version().feature() + ") : exécuteur géré utilisé", e);
+        }
+    }
+
+    @PreDestroy
+    public void arreter() {
+        if (executeurVirtuel != null) {
+            executeurVirtuel.shutdown();
+        }
+    }
+
+    /**
+     * Exécute la tâche sur un thread virtuel si le mode est actif, sinon sur l'exécuteur géré.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException si la tâche est refusée
+     */
+    @Override
+    public void execute(Runnable tache) {
+        if (executeurVirtuel == null) {
+            tachesGerees.incrementAndGet();
+            executor.execute(tache);
+            return;
+        }
+        Runnable contextuelle = contextService.contextualRunnable(tache);
+        tachesVirtuelles.incrementAndGet();
+        virtuellesEnCours.incrementAndGet();
+        try {
+            executeurVirtuel.execute(() -> {
+                try {
+                    contextuelle.run();
+                } finally {
+                    virtuellesEnCours.decrementAndGet();
+                }
+            });
+        } catch (RuntimeException e) {
+            virtuellesEnCours.decrementAndGet();
+            throw e;
+        }
+    }
+
+    public boolean isVirtuel() {
+        return executeurVirtuel != null;
+    }
+
+    /**
+     * Retourne le mode d'exécution et les compteurs de tâches.
+     */
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("mode", isVirtuel() ? "virtuel" : "gere");
+        metriques.put("tachesVirtuelles", tachesVirtuelles.get());
+        metriques.put("virtuellesEnCours", virtuellesEnCours.get());
+        metriques.put("tachesGerees", tachesGerees.get());
+        return metriques;
+    }
+
+    // --- Méthodes privées ---
+
+    /**
+     * Équivalent de Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("reservations-virtuel-", 0).factory()).
+     */
+    private static ExecutorService creerExecuteurVirtuel() throws ReflectiveOperationException {
+        Class<?> classeBuilder = Class.forName("java.lang.Thread$Builder");
+        Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+        builder = classeBuilder.getMethod("name", String.class, long.class).invoke(builder, "reservations-virtuel-", 0L);
+        ThreadFactory fabrique = (ThreadFactory) classeBuilder.getMethod("factory").invoke(builder);
+        return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                .invoke(null, fabrique);
+    }
+}
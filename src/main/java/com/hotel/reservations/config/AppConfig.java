@@ -23,6 +23,58 @@ public class AppConfig {
     private int connectTimeout;
     private int readTimeout;
     private boolean modeDeveloppement;
+    private int poolMaxParRoute;
+    private boolean poolKeepAlive;
+    private int poolKeepAliveDuree;
+    private int cacheChambresTailleMax;
+    private long cacheChambresDureeVie;
+    private long cacheChambresPeremption;
+    private int cacheClientsTailleMax;
+    private long cacheClientsDureeVie;
+    private long cacheClientsDureeVieNegative;
+    private boolean restAsyncActif;
+    private long restAsyncTimeout;
+    private long outboxIntervalle;
+    private int outboxTailleLot;
+    private long outboxDelaiInitial;
+    private long outboxDelaiMax;
+    private boolean indexDisponibiliteActif;
+    private long indexDisponibiliteVerification;
+    private boolean statistiquesActif;
+    private long statistiquesResynchronisation;
+    private boolean migrationsActif;
+    private boolean migrationsVerificationPlans;
+    private boolean compressionActif;
+    private int compressionTailleMin;
+    private boolean indexClientsActif;
+    private long indexClientsRafraichissement;
+    private boolean cacheHttpActif;
+    private long cacheHttpDureeVieDefaut;
+    private long cacheHttpPeremptionErreur;
+    private int cacheHttpTailleMaxCorps;
+    private boolean disjoncteurActif;
+    private int disjoncteurFenetre;
+    private int disjoncteurAppelsMin;
+    private int disjoncteurTauxEchec;
+    private int disjoncteurTauxLents;
+    private long disjoncteurSeuilLent;
+    private long disjoncteurDureeOuverture;
+    private int disjoncteurAppelsSondes;
+    private int cloisonAppelsMax;
+    private long cloisonAttenteMax;
+    private long echeanceRequete;
+    private boolean couvertureActif;
+    private int couverturePercentile;
+    private long couvertureDelaiMin;
+    private int couvertureTauxMax;
+    private long lotFenetre;
+    private int lotTailleMax;
+    private int lotParallelisme;
+    private boolean referenceActif;
+    private long referenceRafraichissement;
+    private boolean threadsVirtuelsActif;
+    private boolean detectionEpinglageActif;
+    private long seuilEpinglage;
     
     @PostConstruct
     public void init() {
@@ -47,6 +99,58 @@ public class AppConfig {
         connectTimeout = Integer.parseInt(properties.getProperty("service.timeout.connect", "5000"));
         readTimeout = Integer.parseInt(properties.getProperty("service.timeout.read", "10000"));
         modeDeveloppement = Boolean.parseBoolean(properties.getProperty("mode.developpement", "true"));
+        poolMaxParRoute = Integer.parseInt(properties.getProperty("service.pool.max-par-route", "20"));
+        poolKeepAlive = Boolean.parseBoolean(properties.getProperty("service.pool.keep-alive", "true"));
+        poolKeepAliveDuree = Integer.parseInt(properties.getProperty("service.pool.keep-alive-duree", "30"));
+        cacheChambresTailleMax = Integer.parseInt(properties.getProperty("cache.chambres.taille-max", "1000"));
+        cacheChambresDureeVie = Long.parseLong(properties.getProperty("cache.chambres.duree-vie", "300000"));
+        cacheChambresPeremption = Long.parseLong(properties.getProperty("cache.chambres.peremption", "60000"));
+        cacheClientsTailleMax = Integer.parseInt(properties.getProperty("cache.clients.taille-max", "5000"));
+        cacheClientsDureeVie = Long.parseLong(properties.getProperty("cache.clients.duree-vie", "60000"));
+        cacheClientsDureeVieNegative = Long.parseLong(properties.getProperty("cache.clients.duree-vie-negative", "30000"));
+        restAsyncActif = Boolean.parseBoolean(properties.getProperty("rest.async.actif", "true"));
+        restAsyncTimeout = Long.parseLong(properties.getProperty("rest.async.timeout", "30000"));
+        outboxIntervalle = Long.parseLong(properties.getProperty("outbox.intervalle", "2000"));
+        outboxTailleLot = Integer.parseInt(properties.getProperty("outbox.taille-lot", "50"));
+        outboxDelaiInitial = Long.parseLong(properties.getProperty("outbox.delai-initial", "1000"));
+        outboxDelaiMax = Long.parseLong(properties.getProperty("outbox.delai-max", "300000"));
+        indexDisponibiliteActif = Boolean.parseBoolean(properties.getProperty("index.disponibilite.actif", "true"));
+        indexDisponibiliteVerification = Long.parseLong(properties.getProperty("index.disponibilite.verification", "300000"));
+        statistiquesActif = Boolean.parseBoolean(properties.getProperty("statistiques.actif", "true"));
+        statistiquesResynchronisation = Long.parseLong(properties.getProperty("statistiques.resynchronisation", "3600000"));
+        migrationsActif = Boolean.parseBoolean(properties.getProperty("migrations.actif", "true"));
+        migrationsVerificationPlans = Boolean.parseBoolean(properties.getProperty("migrations.verification-plans", "true"));
+        compressionActif = Boolean.parseBoolean(properties.getProperty("compression.actif", "true"));
+        compressionTailleMin = Integer.parseInt(properties.getProperty("compression.taille-min", "1024"));
+        indexClientsActif = Boolean.parseBoolean(properties.getProperty("index.clients.actif", "true"));
+        indexClientsRafraichissement = Long.parseLong(properties.getProperty("index.clients.rafraichissement", "300000"));
+        cacheHttpActif = Boolean.parseBoolean(properties.getProperty("cache.http.actif", "true"));
+        cacheHttpDureeVieDefaut = Long.parseLong(properties.getProperty("cache.http.duree-vie-defaut", "0"));
+        cacheHttpPeremptionErreur = Long.parseLong(properties.getProperty("cache.http.peremption-erreur", "300000"));
+        cacheHttpTailleMaxCorps = Integer.parseInt(properties.getProperty("cache.http.taille-max-corps", "5242880"));
+        disjoncteurActif = Boolean.parseBoolean(properties.getProperty("disjoncteur.actif", "true"));
+        disjoncteurFenetre = Integer.parseInt(properties.getProperty("disjoncteur.fenetre", "20"));
+        disjoncteurAppelsMin = Integer.parseInt(properties.getProperty("disjoncteur.appels-min", "10"));
+        disjoncteurTauxEchec = Integer.parseInt(properties.getProperty("disjoncteur.taux-echec", "50"));
+        disjoncteurTauxLents = Integer.parseInt(properties.getProperty("disjoncteur.taux-lents", "80"));
+        disjoncteurSeuilLent = Long.parseLong(properties.getProperty("disjoncteur.seuil-lent", "2000"));
+        disjoncteurDureeOuverture = Long.parseLong(properties.getProperty("disjoncteur.duree-ouverture", "30000"));
+        disjoncteurAppelsSondes = Integer.parseInt(properties.getProperty("disjoncteur.appels-sondes", "3"));
+        cloisonAppelsMax = Integer.parseInt(properties.getProperty("cloison.appels-max", "20"));
+        cloisonAttenteMax = Long.parseLong(properties.getProperty("cloison.attente-max", "100"));
+        echeanceRequete = Long.parseLong(properties.getProperty("echeance.requete", "0"));
+        couvertureActif = Boolean.parseBoolean(properties.getProperty("couverture.actif", "false"));
+        couverturePercentile = Integer.parseInt(properties.getProperty("couverture.percentile", "95"));
+        couvertureDelaiMin = Long.parseLong(properties.getProperty("couverture.delai-min", "50"));
+        couvertureTauxMax = Integer.parseInt(properties.getProperty("couverture.taux-max", "10"));
+        lotFenetre = Long.parseLong(properties.getProperty("lot.fenetre", "5"));
+        lotTailleMax = Integer.parseInt(properties.getProperty("lot.taille-max", "100"));
+        lotParallelisme = Integer.parseInt(properties.getProperty("lot.parallelisme", "8"));
+        referenceActif = Boolean.parseBoolean(properties.getProperty("reference.actif", "true"));
+        referenceRafraichissement = Long.parseLong(properties.getProperty("reference.rafraichissement", "300000"));
+        threadsVirtuelsActif = Boolean.parseBoolean(properties.getProperty("threads.virtuels.actif", "false"));
+        detectionEpinglageActif = Boolean.parseBoolean(properties.getProperty("threads.virtuels.detection-epinglage", "true"));
+        seuilEpinglage = Long.parseLong(properties.getProperty("threads.virtuels.seuil-epinglage", "20"));
         
         LOGGER.info("Mode développement: " + modeDeveloppement);
         LOGGER.info("URL Service Chambres: " + chambreServiceUrl);
@@ -59,6 +163,58 @@ public class AppConfig {
         connectTimeout = 5000;
         readTimeout = 10000;
         modeDeveloppement = true;
+        poolMaxParRoute = 20;
+        poolKeepAlive = true;
+        poolKeepAliveDuree = 30;
+        cacheChambresTailleMax = 1000;
+        cacheChambresDureeVie = 300000;
+        cacheChambresPeremption = 60000;
+        cacheClientsTailleMax = 5000;
+        cacheClientsDureeVie = 60000;
+        cacheClientsDureeVieNegative = 30000;
+        restAsyncActif = true;
+        restAsyncTimeout = 30000;
+        outboxIntervalle = 2000;
+        outboxTailleLot = 50;
+        outboxDelaiInitial = 1000;
+        outboxDelaiMax = 300000;
+        indexDisponibiliteActif = true;
+        indexDisponibiliteVerification = 300000;
+        statistiquesActif = true;
+        statistiquesResynchronisation = 3600000;
+        migrationsActif = true;
+        migrationsVerificationPlans = true;
+        compressionActif = true;
+        compressionTailleMin = 1024;
+        indexClientsActif = true;
+        indexClientsRafraichissement = 300000;
+        cacheHttpActif = true;
+        cacheHttpDureeVieDefaut = 0;
+        cacheHttpPeremptionErreur = 300000;
+        cacheHttpTailleMaxCorps = 5242880;
+        disjoncteurActif = true;
+        disjoncteurFenetre = 20;
+        disjoncteurAppelsMin = 10;
+        disjoncteurTauxEchec = 50;
+        disjoncteurTauxLents = 80;
+        disjoncteurSeuilLent = 2000;
+        disjoncteurDureeOuverture = 30000;
+        disjoncteurAppelsSondes = 3;
+        cloisonAppelsMax = 20;
+        cloisonAttenteMax = 100;
+        echeanceRequete = 0;
+        couvertureActif = false;
+        couverturePercentile = 95;
+        couvertureDelaiMin = 50;
+        couvertureTauxMax = 10;
+        lotFenetre = 5;
+        lotTailleMax = 100;
+        lotParallelisme = 8;
+        referenceActif = true;
+        referenceRafraichissement = 300000;
+        threadsVirtuelsActif = false;
+        detectionEpinglageActif = true;
+        seuilEpinglage = 20;
     }
     
     // Getters
@@ -81,4 +237,212 @@ public class AppConfig {
     public boolean isModeDeveloppement() {
         return modeDeveloppement;
     }
+    
+    public int getPoolMaxParRoute() {
+        return poolMaxParRoute;
+    }
+    
+    public boolean isPoolKeepAlive() {
+        return poolKeepAlive;
+    }
+    
+    public int getPoolKeepAliveDuree() {
+        return poolKeepAliveDuree;
+    }
+    
+    public int getCacheChambresTailleMax() {
+        return cacheChambresTailleMax;
+    }
+    
+    public long getCacheChambresDureeVie() {
+        return cacheChambresDureeVie;
+    }
+    
+    public long getCacheChambresPeremption() {
+        return cacheChambresPeremption;
+    }
+    
+    public int getCacheClientsTailleMax() {
+        return cacheClientsTailleMax;
+    }
+    
+    public long getCacheClientsDureeVie() {
+        return cacheClientsDureeVie;
+    }
+    
+    public long getCacheClientsDureeVieNegative() {
+        return cacheClientsDureeVieNegative;
+    }
+    
+    public boolean isRestAsyncActif() {
+        return restAsyncActif;
+    }
+    
+    public long getRestAsyncTimeout() {
+        return restAsyncTimeout;
+    }
+    
+    public long getOutboxIntervalle() {
+        return outboxIntervalle;
+    }
+    
+    public int getOutboxTailleLot() {
+        return outboxTailleLot;
+    }
+    
+    public long getOutboxDelaiInitial() {
+        return outboxDelaiInitial;
+    }
+    
+    public long getOutboxDelaiMax() {
+        return outboxDelaiMax;
+    }
+    
+    public boolean isIndexDisponibiliteActif() {
+        return indexDisponibiliteActif;
+    }
+    
+    public long getIndexDisponibiliteVerification() {
+        return indexDisponibiliteVerification;
+    }
+    
+    public boolean isStatistiquesActif() {
+        return statistiquesActif;
+    }
+    
+    public long getStatistiquesResynchronisation() {
+        return statistiquesResynchronisation;
+    }
+    
+    public boolean isMigrationsActif() {
+        return migrationsActif;
+    }
+    
+    public boolean isMigrationsVerificationPlans() {
+        return migrationsVerificationPlans;
+    }
+    
+    public boolean isCompressionActif() {
+        return compressionActif;
+    }
+    
+    public int getCompressionTailleMin() {
+        return compressionTailleMin;
+    }
+    
+    public boolean isIndexClientsActif() {
+        return indexClientsActif;
+    }
+    
+    public long getIndexClientsRafraichissement() {
+        return indexClientsRafraichissement;
+    }
+    
+    public boolean isCacheHttpActif() {
+        return cacheHttpActif;
+    }
+    
+    public long getCacheHttpDureeVieDefaut() {
+        return cacheHttpDureeVieDefaut;
+    }
+    
+    public long getCacheHttpPeremptionErreur() {
+        return cacheHttpPeremptionErreur;
+    }
+    
+    public int getCacheHttpTailleMaxCorps() {
+        return cacheHttpTailleMaxCorps;
+    }
+    
+    public boolean isDisjoncteurActif() {
+        return disjoncteurActif;
+    }
+    
+    public int getDisjoncteurFenetre() {
+        return disjoncteurFenetre;
+    }
+    
+    public int getDisjoncteurAppelsMin() {
+        return disjoncteurAppelsMin;
+    }
+    
+    public int getDisjoncteurTauxEchec() {
+        return disjoncteurTauxEchec;
+    }
+    
+    public int getDisjoncteurTauxLents() {
+        return disjoncteurTauxLents;
+    }
+    
+    public long getDisjoncteurSeuilLent() {
+        return disjoncteurSeuilLent;
+    }
+    
+    public long getDisjoncteurDureeOuverture() {
+        return disjoncteurDureeOuverture;
+    }
+    
+    public int getDisjoncteurAppelsSondes() {
+        return disjoncteurAppelsSondes;
+    }
+    
+    public int getCloisonAppelsMax() {
+        return cloisonAppelsMax;
+    }
+    
+    public long getCloisonAttenteMax() {
+        return cloisonAttenteMax;
+    }
+    
+    public long getEcheanceRequete() {
+        return echeanceRequete;
+    }
+    
+    public boolean isCouvertureActif() {
+        return couvertureActif;
+    }
+    
+    public int getCouverturePercentile() {
+        return couverturePercentile;
+    }
+    
+    public long getCouvertureDelaiMin() {
+        return couvertureDelaiMin;
+    }
+    
+    public int getCouvertureTauxMax() {
+        return couvertureTauxMax;
+    }
+    
+    public long getLotFenetre() {
+        return lotFenetre;
+    }
+    
+    public int getLotTailleMax() {
+        return lotTailleMax;
+    }
+    
+    public int getLotParallelisme() {
+        return lotParallelisme;
+    }
+    
+    public boolean isReferenceActif() {
+        return referenceActif;
+    }
+    
+    public long getReferenceRafraichissement() {
+        return referenceRafraichissement;
+    }
+    
+    public boolean isThreadsVirtuelsActif() {
+        return threadsVirtuelsActif;
+    }
+    
+    public boolean isDetectionEpinglageActif() {
+        return detectionEpinglageActif;
+    }
+    
+    public long getSeuilEpinglage() {
+        return seuilEpinglage;
+    }
 }
@@ -0,0 +1,22 @@
+package com.hotel.reservations.dto;
+
+/**
+ * Niveau de détail du rapport des réservations.
+ */
+public enum DetailRapport {
+    
+    /**
+     * Compteurs uniquement, sans les listes
+     */
+    NONE,
+    
+    /**
+     * Compteurs et une page de chaque liste, avec curseur
+     */
+    PAGE,
+    
+    /**
+     * Compteurs et listes complètes
+     */
+    FULL
+}
@@ -0,0 +1,59 @@
+package com.hotel.reservations.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO pour le résultat d'une recherche de chambres libres sur une période.
+ */
+public class DisponibilitesDTO {
+    
+    private LocalDate dateDebut;
+    private LocalDate dateFin;
+    private int nombreChambresLibres;
+    private List<Long> chambresLibres;
+    
+    // Constructeurs
+    public DisponibilitesDTO() {
+    }
+    
+    public DisponibilitesDTO(LocalDate dateDebut, LocalDate dateFin, List<Long> chambresLibres) {
+        this.dateDebut = dateDebut;
+        this.dateFin = dateFin;
+        this.chambresLibres = chambresLibres;
+        this.nombreChambresLibres = chambresLibres.size();
+    }
+    
+    // Getters et Setters
+    public LocalDate getDateDebut() {
+        return dateDebut;
+    }
+    
+    public void setDateDebut(LocalDate dateDebut) {
+        this.dateDebut = dateDebut;
+    }
+    
+    public LocalDate getDateFin() {
+        return dateFin;
+    }
+    
+    public void setDateFin(LocalDate dateFin) {
+        this.dateFin = dateFin;
+    }
+    
+    public int getNombreChambresLibres() {
+        return nombreChambresLibres;
+    }
+    
+    public void setNombreChambresLibres(int nombreChambresLibres) {
+        this.nombreChambresLibres = nombreChambresLibres;
+    }
+    
+    public List<Long> getChambresLibres() {
+        return chambresLibres;
+    }
+    
+    public void setChambresLibres(List<Long> chambresLibres) {
+        this.chambresLibres = chambresLibres;
+    }
+}
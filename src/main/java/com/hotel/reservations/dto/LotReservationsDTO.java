@@ -0,0 +1,38 @@
+package com.hotel.reservations.dto;
+
+import java.util.List;
+
+/**
+ * DTO pour la création de réservations en lot (groupes, tour-opérateurs).
+ */
+public class LotReservationsDTO {
+    
+    private boolean toutOuRien = true;
+    private List<ReservationDTO> reservations;
+    
+    // Constructeurs
+    public LotReservationsDTO() {
+    }
+    
+    // Getters et Setters
+    
+    /**
+     * Si vrai, aucune réservation n'est créée dès qu'un élément est refusé ;
+     * sinon les éléments valides sont créés et les autres signalés.
+     */
+    public boolean isToutOuRien() {
+        return toutOuRien;
+    }
+    
+    public void setToutOuRien(boolean toutOuRien) {
+        this.toutOuRien = toutOuRien;
+    }
+    
+    public List<ReservationDTO> getReservations() {
+        return reservations;
+    }
+    
+    public void setReservations(List<ReservationDTO> reservations) {
+        this.reservations = reservations;
+    }
+}
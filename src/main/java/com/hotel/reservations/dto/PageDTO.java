@@ -0,0 +1,51 @@
+package com.hotel.reservations.dto;
+
+import java.util.List;
+
+/**
+ * DTO pour une page de résultats paginés par curseur (keyset).
+ */
+public class PageDTO<T> {
+    
+    private List<T> elements;
+    private int nombre;
+    private String curseurSuivant;
+    
+    // Constructeurs
+    public PageDTO() {
+    }
+    
+    public PageDTO(List<T> elements, String curseurSuivant) {
+        this.elements = elements;
+        this.nombre = elements.size();
+        this.curseurSuivant = curseurSuivant;
+    }
+    
+    // Getters et Setters
+    public List<T> getElements() {
+        return elements;
+    }
+    
+    public void setElements(List<T> elements) {
+        this.elements = elements;
+    }
+    
+    public int getNombre() {
+        return nombre;
+    }
+    
+    public void setNombre(int nombre) {
+        this.nombre = nombre;
+    }
+    
+    /**
+     * Curseur à passer pour obtenir la page suivante, null s'il n'y en a pas.
+     */
+    public String getCurseurSuivant() {
+        return curseurSuivant;
+    }
+    
+    public void setCurseurSuivant(String curseurSuivant) {
+        this.curseurSuivant = curseurSuivant;
+    }
+}
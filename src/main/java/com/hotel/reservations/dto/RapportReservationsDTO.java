@@ -15,6 +15,10 @@ public class RapportReservationsDTO {
     private List<ReservationDTO> listeReservationsAVenir;
     private String dateGeneration;
     
+    // Pagination (mode detail=page)
+    private String curseurOccupationsSuivant;
+    private String curseurAVenirSuivant;
+    
     // Constructeurs
     public RapportReservationsDTO() {
     }
@@ -75,4 +79,20 @@ public class RapportReservationsDTO {
     public void setDateGeneration(String dateGeneration) {
         this.dateGeneration = dateGeneration;
     }
+    
+    public String getCurseurOccupationsSuivant() {
+        return curseurOccupationsSuivant;
+    }
+    
+    public void setCurseurOccupationsSuivant(String curseurOccupationsSuivant) {
+        this.curseurOccupationsSuivant = curseurOccupationsSuivant;
+    }
+    
+    public String getCurseurAVenirSuivant() {
+        return curseurAVenirSuivant;
+    }
+    
+    public void setCurseurAVenirSuivant(String curseurAVenirSuivant) {
+        this.curseurAVenirSuivant = curseurAVenirSuivant;
+    }
 }
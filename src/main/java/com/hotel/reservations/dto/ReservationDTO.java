@@ -37,6 +37,9 @@ public class ReservationDTO {
     
     private Long nombreNuits;
     
+    // Version de la réservation (ETag, verrouillage optimiste), attribuée par le serveur
+    private Integer version;
+    
     // Informations enrichies (provenant des autres services)
     private String nomClient;
     private String numeroChambre;
@@ -134,6 +137,14 @@ public class ReservationDTO {
         this.nombreNuits = nombreNuits;
     }
     
+    public Integer getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+    
     public String getNomClient() {
         return nomClient;
     }
@@ -0,0 +1,174 @@
+package com.hotel.reservations.dto;
+
+import com.hotel.reservations.entity.StatutReservation;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DTO pour la projection de champs d'une réservation (GET /reservations?fields=...).
+ * Seules les colonnes demandées sont lues ; les champs non demandés restent null et
+ * ne figurent pas dans la réponse JSON.
+ */
+public class ReservationProjectionDTO {
+    
+    private Long id;
+    private Long clientId;
+    private Long chambreId;
+    private LocalDate dateDebut;
+    private LocalDate dateFin;
+    private StatutReservation statut;
+    private BigDecimal montantTotal;
+    private BigDecimal prixParNuit;
+    private String remarques;
+    private LocalDateTime dateCreation;
+    private LocalDateTime dateModification;
+    private Integer version;
+    
+    // Constructeurs
+    public ReservationProjectionDTO() {
+    }
+    
+    /**
+     * Renseigne un champ projeté à partir de la colonne lue.
+     */
+    public void definir(String champ, Object valeur) {
+        switch (champ) {
+            case "id":
+                id = (Long) valeur;
+                break;
+            case "clientId":
+                clientId = (Long) valeur;
+                break;
+            case "chambreId":
+                chambreId = (Long) valeur;
+                break;
+            case "dateDebut":
+                dateDebut = (LocalDate) valeur;
+                break;
+            case "dateFin":
+                dateFin = (LocalDate) valeur;
+                break;
+            case "statut":
+                statut = (StatutReservation) valeur;
+                break;
+            case "montantTotal":
+                montantTotal = (BigDecimal) valeur;
+                break;
+            case "prixParNuit":
+                prixParNuit = (BigDecimal) valeur;
+                break;
+            case "remarques":
+                remarques = (String) valeur;
+                break;
+            case "dateCreation":
+                dateCreation = (LocalDateTime) valeur;
+                break;
+            case "dateModification":
+                dateModification = (LocalDateTime) valeur;
+                break;
+            case "version":
+                version = (Integer) valeur;
+                break;
+            default:
+                throw new IllegalArgumentException("Champ inconnu: " + champ);
+        }
+    }
+    
+    // Getters et Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getClientId() {
+        return clientId;
+    }
+    
+    public void setClientId(Long clientId) {
+        this.clientId = clientId;
+    }
+    
+    public Long getChambreId() {
+        return chambreId;
+    }
+    
+    public void setChambreId(Long chambreId) {
+        this.chambreId = chambreId;
+    }
+    
+    public LocalDate getDateDebut() {
+        return dateDebut;
+    }
+    
+    public void setDateDebut(LocalDate dateDebut) {
+        this.dateDebut = dateDebut;
+    }
+    
+    public LocalDate getDateFin() {
+        return dateFin;
+    }
+    
+    public void setDateFin(LocalDate dateFin) {
+        this.dateFin = dateFin;
+    }
+    
+    public StatutReservation getStatut() {
+        return statut;
+    }
+    
+    public void setStatut(StatutReservation statut) {
+        this.statut = statut;
+    }
+    
+    public BigDecimal getMontantTotal() {
+        return montantTotal;
+    }
+    
+    public void setMontantTotal(BigDecimal montantTotal) {
+        this.montantTotal = montantTotal;
+    }
+    
+    public BigDecimal getPrixParNuit() {
+        return prixParNuit;
+    }
+    
+    public void setPrixParNuit(BigDecimal prixParNuit) {
+        this.prixParNuit = prixParNuit;
+    }
+    
+    public String getRemarques() {
+        return remarques;
+    }
+    
+    public void setRemarques(String remarques) {
+        this.remarques = remarques;
+    }
+    
+    public LocalDateTime getDateCreation() {
+        return dateCreation;
+    }
+    
+    public void setDateCreation(LocalDateTime dateCreation) {
+        this.dateCreation = dateCreation;
+    }
+    
+    public LocalDateTime getDateModification() {
+        return dateModification;
+    }
+    
+    public void setDateModification(LocalDateTime dateModification) {
+        this.dateModification = dateModification;
+    }
+    
+    public Integer getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,115 @@
+package com.hotel.reservations.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO pour le résultat d'une création de réservations en lot.
+ */
+public class ResultatLotDTO {
+    
+    private boolean toutOuRien;
+    private int nombreCreees;
+    private int nombreRefusees;
+    private List<Element> resultats = new ArrayList<>();
+    
+    // Constructeurs
+    public ResultatLotDTO() {
+    }
+    
+    public ResultatLotDTO(boolean toutOuRien) {
+        this.toutOuRien = toutOuRien;
+    }
+    
+    // Getters et Setters
+    public boolean isToutOuRien() {
+        return toutOuRien;
+    }
+    
+    public void setToutOuRien(boolean toutOuRien) {
+        this.toutOuRien = toutOuRien;
+    }
+    
+    public int getNombreCreees() {
+        return nombreCreees;
+    }
+    
+    public void setNombreCreees(int nombreCreees) {
+        this.nombreCreees = nombreCreees;
+    }
+    
+    public int getNombreRefusees() {
+        return nombreRefusees;
+    }
+    
+    public void setNombreRefusees(int nombreRefusees) {
+        this.nombreRefusees = nombreRefusees;
+    }
+    
+    public List<Element> getResultats() {
+        return resultats;
+    }
+    
+    public void setResultats(List<Element> resultats) {
+        this.resultats = resultats;
+    }
+    
+    /**
+     * Résultat d'un élément du lot, dans l'ordre de la requête.
+     */
+    public static class Element {
+        
+        private int index;
+        private boolean cree;
+        private ReservationDTO reservation;
+        private String code;
+        private String message;
+        
+        public Element() {
+        }
+        
+        public Element(int index) {
+            this.index = index;
+        }
+        
+        public int getIndex() {
+            return index;
+        }
+        
+        public void setIndex(int index) {
+            this.index = index;
+        }
+        
+        public boolean isCree() {
+            return cree;
+        }
+        
+        public void setCree(boolean cree) {
+            this.cree = cree;
+        }
+        
+        public ReservationDTO getReservation() {
+            return reservation;
+        }
+        
+        public void setReservation(ReservationDTO reservation) {
+            this.reservation = reservation;
+        }
+        
+        public String getCode() {
+            return code;
+        }
+        
+        public void setCode(String code) {
+            this.code = code;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+        
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
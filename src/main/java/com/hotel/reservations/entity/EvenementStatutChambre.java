@@ -0,0 +1,134 @@
+package com.hotel.reservations.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Événement de changement de statut d'une chambre à propager au Service Chambres.
+ * Écrit dans la même transaction que la réservation (outbox transactionnelle),
+ * puis envoyé en arrière-plan par le répartiteur.
+ */
+@Entity
+@Table(name = "outbox_statut_chambre")
+@NamedQueries({
+    @NamedQuery(
+        name = "EvenementStatutChambre.findAEnvoyer",
+        query = "SELECT e FROM EvenementStatutChambre e WHERE e.prochaineTentative <= :maintenant ORDER BY e.id"
+    ),
+    @NamedQuery(
+        name = "EvenementStatutChambre.count",
+        query = "SELECT COUNT(e) FROM EvenementStatutChambre e"
+    ),
+    @NamedQuery(
+        name = "EvenementStatutChambre.supprimerJusqua",
+        query = "DELETE FROM EvenementStatutChambre e WHERE e.chambreId = :chambreId AND e.id <= :id"
+    ),
+    @NamedQuery(
+        name = "EvenementStatutChambre.reporterJusqua",
+        query = "UPDATE EvenementStatutChambre e SET e.tentatives = :tentatives, e.prochaineTentative = :prochaineTentative, e.derniereErreur = :erreur WHERE e.chambreId = :chambreId AND e.id <= :id"
+    )
+})
+public class EvenementStatutChambre implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "chambre_id", nullable = false)
+    private Long chambreId;
+    
+    @Column(nullable = false, length = 20)
+    private String statut;
+    
+    @Column(name = "date_creation", nullable = false, updatable = false)
+    private LocalDateTime dateCreation;
+    
+    @Column(nullable = false)
+    private int tentatives;
+    
+    @Column(name = "prochaine_tentative", nullable = false)
+    private LocalDateTime prochaineTentative;
+    
+    @Column(name = "derniere_erreur", length = 500)
+    private String derniereErreur;
+    
+    // Constructeurs
+    public EvenementStatutChambre() {
+    }
+    
+    public EvenementStatutChambre(Long chambreId, String statut) {
+        this.chambreId = chambreId;
+        this.statut = statut;
+    }
+    
+    // Callbacks JPA
+    @PrePersist
+    protected void onCreate() {
+        this.dateCreation = LocalDateTime.now();
+        if (this.prochaineTentative == null) {
+            this.prochaineTentative = this.dateCreation;
+        }
+    }
+    
+    // Getters et Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getChambreId() {
+        return chambreId;
+    }
+    
+    public void setChambreId(Long chambreId) {
+        this.chambreId = chambreId;
+    }
+    
+    public String getStatut() {
+        return statut;
+    }
+    
+    public void setStatut(String statut) {
+        this.statut = statut;
+    }
+    
+    public LocalDateTime getDateCreation() {
+        return dateCreation;
+    }
+    
+    public int getTentatives() {
+        return tentatives;
+    }
+    
+    public void setTentatives(int tentatives) {
+        this.tentatives = tentatives;
+    }
+    
+    public LocalDateTime getProchaineTentative() {
+        return prochaineTentative;
+    }
+    
+    public void setProchaineTentative(LocalDateTime prochaineTentative) {
+        this.prochaineTentative = prochaineTentative;
+    }
+    
+    public String getDerniereErreur() {
+        return derniereErreur;
+    }
+    
+    public void setDerniereErreur(String derniereErreur) {
+        this.derniereErreur = derniereErreur;
+    }
+    
+    @Override
+    public String toString() {
+        return "EvenementStatutChambre{" +
+                "id=" + id +
+                ", chambreId=" + chambreId +
+                ", statut=" + statut +
+                ", tentatives=" + tentatives +
+                '}';
+    }
+}
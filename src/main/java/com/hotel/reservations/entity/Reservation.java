@@ -38,6 +38,34 @@ import java.time.temporal.ChronoUnit;
         name = "Reservation.findReservationsAVenir",
         query = "SELECT r FROM Reservation r WHERE r.dateDebut > CURRENT_DATE AND r.statut IN (com.hotel.reservations.entity.StatutReservation.CONFIRMEE, com.hotel.reservations.entity.StatutReservation.EN_ATTENTE) ORDER BY r.dateDebut"
     ),
+    @NamedQuery(
+        name = "Reservation.countByStatut",
+        query = "SELECT COUNT(r) FROM Reservation r WHERE r.statut = :statut"
+    ),
+    @NamedQuery(
+        name = "Reservation.countReservationsAVenir",
+        query = "SELECT COUNT(r) FROM Reservation r WHERE r.dateDebut > CURRENT_DATE AND r.statut IN (com.hotel.reservations.entity.StatutReservation.CONFIRMEE, com.hotel.reservations.entity.StatutReservation.EN_ATTENTE)"
+    ),
+    @NamedQuery(
+        name = "Reservation.pageOccupationsActuelles",
+        query = "SELECT r FROM Reservation r WHERE r.statut = com.hotel.reservations.entity.StatutReservation.EN_COURS AND r.id > :apresId ORDER BY r.id"
+    ),
+    @NamedQuery(
+        name = "Reservation.pageReservationsAVenir",
+        query = "SELECT r FROM Reservation r WHERE r.dateDebut > CURRENT_DATE AND r.statut IN (com.hotel.reservations.entity.StatutReservation.CONFIRMEE, com.hotel.reservations.entity.StatutReservation.EN_ATTENTE) AND (r.dateDebut > :apresDate OR (r.dateDebut = :apresDate AND r.id > :apresId)) ORDER BY r.dateDebut, r.id"
+    ),
+    @NamedQuery(
+        name = "Reservation.findIntervallesActifs",
+        query = "SELECT r.id, r.chambreId, r.dateDebut, r.dateFin FROM Reservation r WHERE r.statut NOT IN (com.hotel.reservations.entity.StatutReservation.ANNULEE, com.hotel.reservations.entity.StatutReservation.TERMINEE)"
+    ),
+    @NamedQuery(
+        name = "Reservation.findChambresOccupees",
+        query = "SELECT DISTINCT r.chambreId FROM Reservation r WHERE r.statut NOT IN (com.hotel.reservations.entity.StatutReservation.ANNULEE, com.hotel.reservations.entity.StatutReservation.TERMINEE) AND r.dateDebut <= :dateFin AND r.dateFin >= :dateDebut"
+    ),
+    @NamedQuery(
+        name = "Reservation.findIntervallesChambres",
+        query = "SELECT r.id, r.chambreId, r.dateDebut, r.dateFin FROM Reservation r WHERE r.chambreId IN :chambreIds AND r.statut NOT IN (com.hotel.reservations.entity.StatutReservation.ANNULEE, com.hotel.reservations.entity.StatutReservation.TERMINEE) AND r.dateDebut <= :dateFin AND r.dateFin >= :dateDebut"
+    ),
     @NamedQuery(
         name = "Reservation.checkChevauchement",
         query = "SELECT r FROM Reservation r WHERE r.chambreId = :chambreId AND r.statut NOT IN (com.hotel.reservations.entity.StatutReservation.ANNULEE, com.hotel.reservations.entity.StatutReservation.TERMINEE) AND ((r.dateDebut <= :dateFin AND r.dateFin >= :dateDebut))"
@@ -48,7 +76,8 @@ public class Reservation implements Serializable {
     private static final long serialVersionUID = 1L;
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Générateur défini dans META-INF/orm.xml (taille d'allocation configurable)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "GenerateurReservation")
     private Long id;
     
     @NotNull(message = "L'identifiant du client est obligatoire")
@@ -0,0 +1,37 @@
+package com.hotel.reservations.event;
+
+import com.hotel.reservations.dto.ReservationDTO;
+import com.hotel.reservations.entity.StatutReservation;
+
+/**
+ * Événement CDI émis à chaque création ou changement d'état d'une réservation.
+ * Les observateurs le reçoivent après la validation de la transaction.
+ */
+public class ReservationModifiee {
+    
+    private final ReservationDTO reservation;
+    private final StatutReservation statutPrecedent;
+    
+    public ReservationModifiee(ReservationDTO reservation, StatutReservation statutPrecedent) {
+        this.reservation = reservation;
+        this.statutPrecedent = statutPrecedent;
+    }
+    
+    /**
+     * État de la réservation après modification.
+     */
+    public ReservationDTO getReservation() {
+        return reservation;
+    }
+    
+    /**
+     * Statut avant modification, ou null pour une création.
+     */
+    public StatutReservation getStatutPrecedent() {
+        return statutPrecedent;
+    }
+    
+    public boolean isCreation() {
+        return statutPrecedent == null;
+    }
+}
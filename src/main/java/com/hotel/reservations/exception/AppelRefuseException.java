@@ -0,0 +1,12 @@
+package com.hotel.reservations.exception;
+
+/**
+ * Exception levée lorsqu'un appel vers un service externe est refusé sans être émis
+ * (disjoncteur ouvert ou trop d'appels simultanés).
+ */
+public class AppelRefuseException extends ServiceExterneException {
+
+    public AppelRefuseException(String serviceName, String message) {
+        super(serviceName, message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.hotel.reservations.exception;
+
+/**
+ * Exception levée lorsqu'aucune connexion vers un service externe ne se libère dans le
+ * délai imparti (limite de connexions simultanées par route atteinte). L'appel n'a pas
+ * été émis : il ne compte pas comme un échec du service.
+ */
+public class PoolSatureException extends AppelRefuseException {
+
+    public PoolSatureException(String serviceName, String message) {
+        super(serviceName, message);
+    }
+}
@@ -0,0 +1,20 @@
+package com.hotel.reservations.exception;
+
+/**
+ * Exception levée lorsqu'une modification porte sur une version qui n'est plus
+ * la version courante de la réservation (en-tête If-Match).
+ */
+public class VersionObsoleteException extends ReservationException {
+    
+    private final Integer versionCourante;
+    
+    public VersionObsoleteException(Long reservationId, Integer versionCourante) {
+        super("VERSION_OBSOLETE", "La réservation " + reservationId
+                + " a été modifiée entre-temps (version courante: " + versionCourante + ")");
+        this.versionCourante = versionCourante;
+    }
+    
+    public Integer getVersionCourante() {
+        return versionCourante;
+    }
+}
@@ -29,6 +29,7 @@ public class ReservationMapper {
         dto.setPrixParNuit(reservation.getPrixParNuit());
         dto.setRemarques(reservation.getRemarques());
         dto.setNombreNuits(reservation.getNombreNuits());
+        dto.setVersion(reservation.getVersion());
         
         return dto;
     }
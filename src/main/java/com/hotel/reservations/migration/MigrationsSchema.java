@@ -0,0 +1,302 @@
+package com.hotel.reservations.migration;
+
+import com.hotel.reservations.config.AppConfig;
+
+import jakarta.annotation.Priority;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Migrations versionnées du schéma, appliquées au démarrage avant les autres composants.
+ *
+ * Les tables sont créées par la génération de schéma JPA ; les migrations ajoutent ce
+ * qu'elle ne sait pas produire (index secondaires, reprise de données). Chaque version appliquée est
+ * enregistrée dans la table schema_version. Une vérification journalise ensuite les
+ * index attendus absents et les requêtes que Derby exécute par parcours complet de table.
+ */
+@ApplicationScoped
+public class MigrationsSchema {
+
+    private static final Logger LOGGER = Logger.getLogger(MigrationsSchema.class.getName());
+
+    private static final String REPERTOIRE = "db/migration/";
+
+    /** Scripts de migration, dans l'ordre d'application. */
+    private static final List<String> SCRIPTS = List.of(
+            "V1__index_reservations.sql",
+            "V2__index_outbox.sql",
+            "V3__generateur_id_reservations.sql"
+    );
+
+    /** Index attendus par table (colonnes en tête de l'index). */
+    private static final Map<String, Map<String, List<String>>> INDEX_ATTENDUS = new LinkedHashMap<>();
+
+    /** Requêtes représentatives des requêtes nommées, dont le plan est contrôlé. */
+    private static final Map<String, String> REQUETES_CONTROLEES = new LinkedHashMap<>();
+
+    /** En dessous de ce volume, l'optimiseur préfère légitimement un parcours de table. */
+    private static final long SEUIL_LIGNES_PLAN = 1000;
+
+    static {
+        Map<String, List<String>> reservations = new LinkedHashMap<>();
+        reservations.put("IDX_RES_CHAMBRE_DEBUT", List.of("CHAMBRE_ID", "DATE_DEBUT", "DATE_FIN", "STATUT"));
+        reservations.put("IDX_RES_CLIENT_DEBUT", List.of("CLIENT_ID", "DATE_DEBUT"));
+        reservations.put("IDX_RES_STATUT_DEBUT", List.of("STATUT", "DATE_DEBUT", "ID"));
+        reservations.put("IDX_RES_CREATION_ID", List.of("DATE_CREATION", "ID"));
+        reservations.put("IDX_RES_DEBUT_FIN", List.of("DATE_DEBUT", "DATE_FIN", "CHAMBRE_ID"));
+        INDEX_ATTENDUS.put("RESERVATIONS", reservations);
+
+        Map<String, List<String>> outbox = new LinkedHashMap<>();
+        outbox.put("IDX_OUTBOX_PROCHAINE", List.of("PROCHAINE_TENTATIVE", "ID"));
+        outbox.put("IDX_OUTBOX_CHAMBRE_ID", List.of("CHAMBRE_ID", "ID"));
+        INDEX_ATTENDUS.put("OUTBOX_STATUT_CHAMBRE", outbox);
+
+        REQUETES_CONTROLEES.put("Reservation.checkChevauchement",
+                "SELECT id FROM reservations WHERE chambre_id = 1 AND statut NOT IN ('ANNULEE', 'TERMINEE')"
+                + " AND date_debut <= CURRENT_DATE AND date_fin >= CURRENT_DATE");
+        REQUETES_CONTROLEES.put("Reservation.findByClientId",
+                "SELECT id FROM reservations WHERE client_id = 1 ORDER BY date_debut DESC");
+        REQUETES_CONTROLEES.put("Reservation.findByChambreId",
+                "SELECT id FROM reservations WHERE chambre_id = 1 ORDER BY date_debut DESC");
+        REQUETES_CONTROLEES.put("Reservation.findByStatut",
+                "SELECT id FROM reservations WHERE statut = 'EN_COURS' ORDER BY date_debut");
+        REQUETES_CONTROLEES.put("Reservation.findReservationsAVenir",
+                "SELECT id FROM reservations WHERE date_debut > CURRENT_DATE"
+                + " AND statut IN ('CONFIRMEE', 'EN_ATTENTE') ORDER BY date_debut");
+        REQUETES_CONTROLEES.put("Reservation.findAll",
+                "SELECT id FROM reservations ORDER BY date_creation DESC, id DESC FETCH FIRST 20 ROWS ONLY");
+    }
+
+    @Inject
+    private AppConfig config;
+
+    @Resource(lookup = "jdbc/HotelReservationDS")
+    private DataSource dataSource;
+
+    /**
+     * Applique les migrations au lancement, avant la construction des index en mémoire.
+     */
+    public void demarrer(@Observes @Priority(Interceptor.Priority.PLATFORM_BEFORE) @Initialized(ApplicationScoped.class) Object event) {
+        if (!config.isMigrationsActif()) {
+            LOGGER.info("Migrations du schéma désactivées");
+            return;
+        }
+        try (Connection connexion = dataSource.getConnection()) {
+            appliquer(connexion);
+            if (config.isMigrationsVerificationPlans()) {
+                verifierIndex(connexion);
+                verifierPlans(connexion);
+            }
+        } catch (SQLException | IOException e) {
+            LOGGER.log(Level.SEVERE, "Erreur lors de la migration du schéma", e);
+        }
+    }
+
+    // --- Méthodes privées ---
+
+    private void appliquer(Connection connexion) throws SQLException, IOException {
+        creerTableVersions(connexion);
+        Set<Integer> appliquees = versionsAppliquees(connexion);
+
+        for (String script : SCRIPTS) {
+            int version = Integer.parseInt(script.substring(1, script.indexOf("__")));
+            if (appliquees.contains(version)) {
+                continue;
+            }
+
+            LOGGER.info("Application de la migration " + script);
+            boolean autoCommit = connexion.getAutoCommit();
+            connexion.setAutoCommit(false);
+            try (Statement statement = connexion.createStatement()) {
+                for (Instruction instruction : lireInstructions(script)) {
+                    try {
+                        statement.execute(instruction.sql);
+                    } catch (SQLException e) {
+                        // X0Y32 : objet déjà existant (index créé manuellement)
+                        if (!instruction.optionnelle && !"X0Y32".equals(e.getSQLState())) {
+                            throw e;
+                        }
+                        LOGGER.fine("Instruction ignorée (" + e.getSQLState() + "): " + instruction.sql);
+                    }
+                }
+                try (PreparedStatement insertion = connexion.prepareStatement(
+                        "INSERT INTO schema_version (version, script, date_application) VALUES (?, ?, CURRENT_TIMESTAMP)")) {
+                    insertion.setInt(1, version);
+                    insertion.setString(2, script);
+                    insertion.executeUpdate();
+                }
+                connexion.commit();
+            } catch (SQLException e) {
+                connexion.rollback();
+                throw e;
+            } finally {
+                connexion.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private void creerTableVersions(Connection connexion) throws SQLException {
+        DatabaseMetaData metaDonnees = connexion.getMetaData();
+        try (ResultSet tables = metaDonnees.getTables(null, null, "SCHEMA_VERSION", new String[] {"TABLE"})) {
+            if (tables.next()) {
+                return;
+            }
+        }
+        try (Statement statement = connexion.createStatement()) {
+            statement.execute("CREATE TABLE schema_version (version INT NOT NULL PRIMARY KEY,"
+                    + " script VARCHAR(200) NOT NULL, date_application TIMESTAMP NOT NULL)");
+        }
+    }
+
+    private Set<Integer> versionsAppliquees(Connection connexion) throws SQLException {
+        Set<Integer> versions = new HashSet<>();
+        try (Statement statement = connexion.createStatement();
+             ResultSet resultat = statement.executeQuery("SELECT version FROM schema_version")) {
+            while (resultat.next()) {
+                versions.add(resultat.getInt(1));
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * Lit un script et le découpe en instructions (séparateur ';', commentaires '--' ignorés).
+     * Une instruction précédée du commentaire {@code -- @optionnelle} peut échouer sans
+     * interrompre la migration (par exemple lorsqu'elle ne concerne que les bases existantes).
+     */
+    private List<Instruction> lireInstructions(String script) throws IOException {
+        String contenu;
+        try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(REPERTOIRE + script)) {
+            if (in == null) {
+                throw new IOException("Script de migration introuvable: " + script);
+            }
+            contenu = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        List<Instruction> instructions = new ArrayList<>();
+        StringBuilder courante = new StringBuilder();
+        boolean optionnelle = false;
+        for (String ligne : contenu.split("\n")) {
+            String texte = ligne.trim();
+            if (texte.startsWith("--")) {
+                optionnelle |= texte.equals("-- @optionnelle");
+                continue;
+            }
+            courante.append(ligne).append('\n');
+            if (texte.endsWith(";")) {
+                String sql = courante.toString().trim();
+                instructions.add(new Instruction(sql.substring(0, sql.length() - 1).trim(), optionnelle));
+                courante.setLength(0);
+                optionnelle = false;
+            }
+        }
+        if (!courante.toString().isBlank()) {
+            instructions.add(new Instruction(courante.toString().trim(), optionnelle));
+        }
+        return instructions;
+    }
+
+    /**
+     * Journalise les index attendus absents ou dont les colonnes ne correspondent pas.
+     */
+    private void verifierIndex(Connection connexion) throws SQLException {
+        DatabaseMetaData metaDonnees = connexion.getMetaData();
+        for (Map.Entry<String, Map<String, List<String>>> table : INDEX_ATTENDUS.entrySet()) {
+            Map<String, TreeMap<Short, String>> existants = new LinkedHashMap<>();
+            try (ResultSet index = metaDonnees.getIndexInfo(null, null, table.getKey(), false, true)) {
+                while (index.next()) {
+                    String nom = index.getString("INDEX_NAME");
+                    if (nom != null) {
+                        existants.computeIfAbsent(nom.toUpperCase(Locale.ROOT), n -> new TreeMap<>())
+                                .put(index.getShort("ORDINAL_POSITION"), index.getString("COLUMN_NAME").toUpperCase(Locale.ROOT));
+                    }
+                }
+            }
+
+            for (Map.Entry<String, List<String>> attendu : table.getValue().entrySet()) {
+                TreeMap<Short, String> colonnes = existants.get(attendu.getKey());
+                if (colonnes == null) {
+                    LOGGER.warning("Index manquant sur " + table.getKey() + ": " + attendu.getKey() + " " + attendu.getValue());
+                } else if (!new ArrayList<>(colonnes.values()).equals(attendu.getValue())) {
+                    LOGGER.warning("Index " + attendu.getKey() + " sur " + table.getKey() + ": colonnes " + colonnes.values()
+                            + " au lieu de " + attendu.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Exécute les requêtes contrôlées avec les statistiques d'exécution Derby et signale
+     * celles dont le plan parcourt toute la table des réservations.
+     */
+    private void verifierPlans(Connection connexion) {
+        try (Statement statement = connexion.createStatement()) {
+            long lignes;
+            try (ResultSet resultat = statement.executeQuery("SELECT COUNT(*) FROM reservations")) {
+                resultat.next();
+                lignes = resultat.getLong(1);
+            }
+
+            statement.execute("CALL SYSCS_UTIL.SYSCS_SET_RUNTIMESTATISTICS(1)");
+            try {
+                for (Map.Entry<String, String> requete : REQUETES_CONTROLEES.entrySet()) {
+                    try (ResultSet resultat = statement.executeQuery(requete.getValue())) {
+                        while (resultat.next()) {
+                            // Lecture complète : les statistiques portent sur l'exécution entière
+                        }
+                    }
+                    String plan;
+                    try (ResultSet resultat = statement.executeQuery("VALUES SYSCS_UTIL.SYSCS_GET_RUNTIMESTATISTICS()")) {
+                        plan = resultat.next() ? resultat.getString(1) : "";
+                    }
+                    if (plan != null && plan.contains("Table Scan ResultSet for RESERVATIONS")) {
+                        Level niveau = lignes >= SEUIL_LIGNES_PLAN ? Level.WARNING : Level.FINE;
+                        LOGGER.log(niveau, "Parcours complet de la table reservations pour " + requete.getKey()
+                                + " (" + lignes + " lignes)");
+                    }
+                }
+            } finally {
+                statement.execute("CALL SYSCS_UTIL.SYSCS_SET_RUNTIMESTATISTICS(0)");
+            }
+        } catch (SQLException e) {
+            // Base autre que Derby ou procédure indisponible : le contrôle des plans est ignoré
+            LOGGER.log(Level.INFO, "Contrôle des plans d'exécution indisponible: " + e.getMessage());
+        }
+    }
+
+    private static final class Instruction {
+
+        private final String sql;
+        private final boolean optionnelle;
+
+        private Instruction(String sql, boolean optionnelle) {
+            this.sql = sql;
+            this.optionnelle = optionnelle;
+        }
+    }
+}
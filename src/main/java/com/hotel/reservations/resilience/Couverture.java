@@ -0,0 +1,210 @@
+package com.hotel.reservations.resilience;
+
+import com.hotel.reservations.config.AppConfig;
+import com.hotel.reservations.exception.ServiceExterneException;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Requêtes de couverture (hedging) pour les lectures idempotentes d'un service externe.
+ *
+ * Si la première requête n'a pas répondu après le délai correspondant au percentile
+ * configuré des temps de réponse observés, une seconde requête identique est émise et
+ * la première réponse reçue est retenue. Le nombre de requêtes de couverture est borné
+ * à un pourcentage des appels pour ne pas doubler la charge sur un service lent.
+ */
+public class Couverture {
+
+    /** Nombre de temps de réponse conservés pour le calcul du percentile. */
+    private static final int TAILLE_ECHANTILLON = 200;
+
+    /** Nombre de mesures entre deux recalculs du délai (et avant le premier). */
+    private static final int INTERVALLE_CALCUL = 20;
+
+    private final String nom;
+    private final boolean actif;
+    private final int percentile;
+    private final long delaiMinNanos;
+    private final int tauxMax;
+    private final long attenteMaxMs;
+    private final Executor executor;
+
+    // Échantillon circulaire des durées (protégé par verrou : enregistrer() est appelé à
+    // chaque lecture, depuis des threads virtuels qu'un synchronized épinglerait)
+    private final ReentrantLock verrou = new ReentrantLock();
+    private final long[] durees = new long[TAILLE_ECHANTILLON];
+    private int position;
+    private int remplis;
+    private int depuisCalcul;
+    private volatile long delaiNanos = -1;
+
+    private final AtomicLong appels = new AtomicLong();
+    private final AtomicLong couvertures = new AtomicLong();
+    private final AtomicLong couverturesGagnantes = new AtomicLong();
+
+    /**
+     * @param nom nom du service (métriques)
+     * @param config paramètres couverture.*
+     * @param executor exécuteur des requêtes
+     */
+    public Couverture(String nom, AppConfig config, Executor executor) {
+        this.nom = nom;
+        this.actif = config.isCouvertureActif();
+        this.percentile = Math.min(99, Math.max(50, config.getCouverturePercentile()));
+        this.delaiMinNanos = TimeUnit.MILLISECONDS.toNanos(config.getCouvertureDelaiMin());
+        this.tauxMax = config.getCouvertureTauxMax();
+        this.attenteMaxMs = (long) config.getConnectTimeout() + config.getReadTimeout();
+        this.executor = executor;
+    }
+
+    /**
+     * Exécute une lecture idempotente, doublée si elle tarde à répondre.
+     * L'échéance courante est transmise aux deux requêtes.
+     */
+    public <T> T executer(Supplier<T> appel) {
+        if (!actif) {
+            return appel.get();
+        }
+        long delai = delaiNanos;
+        if (delai < 0) {
+            // Pas encore assez de mesures : appel direct, chronométré
+            return mesurer(appel);
+        }
+
+        appels.incrementAndGet();
+        Supplier<T> lie = Echeance.propager(appel);
+        CompletableFuture<T> resultat = new CompletableFuture<>();
+        AtomicInteger enCours = new AtomicInteger(1);
+        try {
+            lancer(lie, resultat, enCours, false);
+        } catch (RejectedExecutionException e) {
+            return mesurer(appel);
+        }
+
+        try {
+            return resultat.get(delai, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (couvertureAutorisee()) {
+                couvertures.incrementAndGet();
+                enCours.incrementAndGet();
+                try {
+                    lancer(lie, resultat, enCours, true);
+                } catch (RejectedExecutionException rejet) {
+                    enCours.decrementAndGet();
+                }
+            }
+            return attendre(resultat, Echeance.borner(attenteMaxMs));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Attente de la réponse du service " + nom + " interrompue", e);
+        } catch (ExecutionException e) {
+            throw propager(e);
+        }
+    }
+
+    /**
+     * Retourne les compteurs de couverture.
+     */
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("actif", actif);
+        long delai = delaiNanos;
+        metriques.put("delaiMs", delai < 0 ? null : TimeUnit.NANOSECONDS.toMillis(delai));
+        metriques.put("appels", appels.get());
+        metriques.put("couvertures", couvertures.get());
+        metriques.put("couverturesGagnantes", couverturesGagnantes.get());
+        return metriques;
+    }
+
+    // --- Méthodes privées ---
+
+    private <T> void lancer(Supplier<T> appel, CompletableFuture<T> resultat, AtomicInteger enCours, boolean couverture) {
+        executor.execute(() -> {
+            try {
+                T valeur = mesurer(appel);
+                if (resultat.complete(valeur) && couverture) {
+                    couverturesGagnantes.incrementAndGet();
+                }
+            } catch (Throwable e) {
+                // Erreur comprise : l'appelant ne doit pas attendre une réponse qui ne viendra pas.
+                // L'échec n'est remonté que si aucune autre requête n'est en cours
+                if (enCours.decrementAndGet() == 0) {
+                    resultat.completeExceptionally(e);
+                }
+            }
+        });
+    }
+
+    private <T> T mesurer(Supplier<T> appel) {
+        long debut = System.nanoTime();
+        T valeur = appel.get();
+        enregistrer(System.nanoTime() - debut);
+        return valeur;
+    }
+
+    private boolean couvertureAutorisee() {
+        Echeance echeance = Echeance.courante();
+        if (echeance != null && echeance.estDepassee()) {
+            return false;
+        }
+        return couvertures.get() * 100 < (long) tauxMax * appels.get();
+    }
+
+    private void enregistrer(long dureeNanos) {
+        verrou.lock();
+        try {
+            durees[position] = dureeNanos;
+            position = (position + 1) % durees.length;
+            if (remplis < durees.length) {
+                remplis++;
+            }
+            if (++depuisCalcul >= INTERVALLE_CALCUL) {
+                depuisCalcul = 0;
+                long[] triees = Arrays.copyOf(durees, remplis);
+                Arrays.sort(triees);
+                int rang = Math.max(0, (int) Math.ceil(percentile / 100.0 * remplis) - 1);
+                delaiNanos = Math.max(delaiMinNanos, triees[rang]);
+            }
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Attend la première réponse, au plus le délai donné (échéance ou délais de connexion et de lecture).
+     */
+    private <T> T attendre(CompletableFuture<T> future, long delaiMs) {
+        try {
+            return future.get(delaiMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ServiceExterneException(nom, "Pas de réponse du service " + nom + " après " + delaiMs + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Attente de la réponse interrompue", e);
+        } catch (ExecutionException e) {
+            throw propager(e);
+        }
+    }
+
+    private static RuntimeException propager(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+            return (RuntimeException) e.getCause();
+        }
+        if (e.getCause() instanceof Error) {
+            throw (Error) e.getCause();
+        }
+        return new IllegalStateException(e.getCause());
+    }
+}
@@ -0,0 +1,292 @@
+package com.hotel.reservations.resilience;
+
+import com.hotel.reservations.config.AppConfig;
+import com.hotel.reservations.exception.AppelRefuseException;
+import com.hotel.reservations.exception.ReservationException;
+import com.hotel.reservations.exception.ServiceExterneException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Disjoncteur et cloison (bulkhead) protégeant les appels vers un service externe.
+ *
+ * Le disjoncteur observe les derniers appels (fenêtre glissante) et s'ouvre quand le
+ * taux d'échecs ou d'appels lents dépasse son seuil : les appels sont alors refusés
+ * immédiatement pendant la durée d'ouverture, puis quelques appels sondes décident de
+ * sa refermeture. La cloison limite le nombre d'appels simultanés vers le service pour
+ * qu'un service lent n'immobilise pas tous les threads de traitement.
+ *
+ * Les erreurs métier (client inconnu...) et les appels refusés sans avoir été émis
+ * (échéance dépassée) ne comptent pas comme des échecs.
+ */
+public class Disjoncteur {
+
+    private static final Logger LOGGER = Logger.getLogger(Disjoncteur.class.getName());
+
+    public enum Etat {
+        FERME, OUVERT, SEMI_OUVERT
+    }
+
+    private final String nom;
+    private final boolean actif;
+    private final int appelsMin;
+    private final int tauxEchec;
+    private final int tauxLents;
+    private final long seuilLentNanos;
+    private final long dureeOuverture;
+    private final int appelsSondes;
+    private final int appelsMax;
+    private final long attenteMax;
+    private final Semaphore cloison;
+
+    // Verrou de l'état et de la fenêtre : ReentrantLock, car enregistrer() s'exécute
+    // sur les threads virtuels des appels et ne doit pas épingler leur porteur
+    private final ReentrantLock verrou = new ReentrantLock();
+
+    // Fenêtre glissante des derniers appels (protégée par verrou)
+    private final boolean[] echecsFenetre;
+    private final boolean[] lentsFenetre;
+    private int position;
+    private int remplis;
+    private int nombreEchecs;
+    private int nombreLents;
+
+    private volatile Etat etat = Etat.FERME;
+    private long ouvertJusqua;
+    private int sondesEnCours;
+    private int sondesReussies;
+
+    private final AtomicLong appels = new AtomicLong();
+    private final AtomicLong echecs = new AtomicLong();
+    private final AtomicLong appelsLents = new AtomicLong();
+    private final AtomicLong rejetsDisjoncteur = new AtomicLong();
+    private final AtomicLong rejetsCloison = new AtomicLong();
+    private final AtomicLong ouvertures = new AtomicLong();
+
+    /**
+     * @param nom nom du service protégé (journalisation, messages d'erreur)
+     * @param config paramètres disjoncteur.* et cloison.*
+     */
+    public Disjoncteur(String nom, AppConfig config) {
+        this.nom = nom;
+        this.actif = config.isDisjoncteurActif();
+        this.appelsMin = config.getDisjoncteurAppelsMin();
+        this.tauxEchec = config.getDisjoncteurTauxEchec();
+        this.tauxLents = config.getDisjoncteurTauxLents();
+        this.seuilLentNanos = TimeUnit.MILLISECONDS.toNanos(config.getDisjoncteurSeuilLent());
+        this.dureeOuverture = config.getDisjoncteurDureeOuverture();
+        this.appelsSondes = Math.max(1, config.getDisjoncteurAppelsSondes());
+        this.appelsMax = config.getCloisonAppelsMax();
+        this.attenteMax = config.getCloisonAttenteMax();
+        this.cloison = new Semaphore(appelsMax, true);
+        int taille = Math.max(1, config.getDisjoncteurFenetre());
+        this.echecsFenetre = new boolean[taille];
+        this.lentsFenetre = new boolean[taille];
+    }
+
+    /**
+     * Exécute un appel vers le service sous la protection du disjoncteur et de la cloison.
+     *
+     * @throws AppelRefuseException si le disjoncteur est ouvert ou la cloison pleine
+     */
+    public <T> T executer(Supplier<T> appel) {
+        if (!actif) {
+            return appel.get();
+        }
+
+        boolean sonde = autoriser();
+        if (!entrerCloison()) {
+            if (sonde) {
+                abandonnerSonde();
+            }
+            rejetsCloison.incrementAndGet();
+            throw new AppelRefuseException(nom, "Trop d'appels simultanés vers le service " + nom);
+        }
+
+        long debut = System.nanoTime();
+        try {
+            T resultat = appel.get();
+            enregistrer(sonde, false, System.nanoTime() - debut);
+            return resultat;
+        } catch (AppelRefuseException e) {
+            // Appel non émis (échéance, pool saturé) : ni succès ni échec, la sonde est libérée
+            if (sonde) {
+                abandonnerSonde();
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            enregistrer(sonde, estEchec(e), System.nanoTime() - debut);
+            throw e;
+        } catch (Throwable e) {
+            // Une Error compte comme un échec et libère la sonde éventuelle
+            enregistrer(sonde, true, System.nanoTime() - debut);
+            throw e;
+        } finally {
+            cloison.release();
+        }
+    }
+
+    public Etat getEtat() {
+        return etat;
+    }
+
+    /**
+     * Retourne l'état et les compteurs du disjoncteur et de la cloison.
+     */
+    public Map<String, Object> getMetriques() {
+        verrou.lock();
+        try {
+            Map<String, Object> metriques = new LinkedHashMap<>();
+            metriques.put("etat", etat.name());
+            metriques.put("appels", appels.get());
+            metriques.put("echecs", echecs.get());
+            metriques.put("appelsLents", appelsLents.get());
+            metriques.put("tauxEchecFenetre", remplis == 0 ? 0 : nombreEchecs * 100 / remplis);
+            metriques.put("tauxLentsFenetre", remplis == 0 ? 0 : nombreLents * 100 / remplis);
+            metriques.put("ouvertures", ouvertures.get());
+            metriques.put("rejetsDisjoncteur", rejetsDisjoncteur.get());
+            metriques.put("appelsEnCours", appelsMax - cloison.availablePermits());
+            metriques.put("appelsMax", appelsMax);
+            metriques.put("rejetsCloison", rejetsCloison.get());
+            return metriques;
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    // --- Méthodes privées ---
+
+    /**
+     * Vérifie que l'appel peut partir ; retourne vrai s'il s'agit d'un appel sonde.
+     */
+    private boolean autoriser() {
+        if (etat == Etat.FERME) {
+            return false;
+        }
+        verrou.lock();
+        try {
+            if (etat == Etat.OUVERT && System.currentTimeMillis() >= ouvertJusqua) {
+                etat = Etat.SEMI_OUVERT;
+                sondesEnCours = 0;
+                sondesReussies = 0;
+                LOGGER.info("Disjoncteur " + nom + " semi-ouvert : appels sondes autorisés");
+            }
+            switch (etat) {
+                case FERME:
+                    return false;
+                case SEMI_OUVERT:
+                    if (sondesEnCours + sondesReussies < appelsSondes) {
+                        sondesEnCours++;
+                        return true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } finally {
+            verrou.unlock();
+        }
+        rejetsDisjoncteur.incrementAndGet();
+        throw new AppelRefuseException(nom, "Service " + nom + " indisponible (disjoncteur ouvert)");
+    }
+
+    private boolean entrerCloison() {
+        try {
+            return cloison.tryAcquire(attenteMax, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void abandonnerSonde() {
+        verrou.lock();
+        try {
+            if (etat == Etat.SEMI_OUVERT) {
+                sondesEnCours--;
+            }
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    private void enregistrer(boolean sonde, boolean echec, long dureeNanos) {
+        verrou.lock();
+        try {
+            boolean lent = dureeNanos >= seuilLentNanos;
+            appels.incrementAndGet();
+            if (echec) {
+                echecs.incrementAndGet();
+            }
+            if (lent) {
+                appelsLents.incrementAndGet();
+            }
+
+            if (sonde) {
+                if (etat != Etat.SEMI_OUVERT) {
+                    return;
+                }
+                sondesEnCours--;
+                if (echec || lent) {
+                    ouvrir("appel sonde en " + (echec ? "échec" : "dépassement du seuil de lenteur"));
+                } else if (++sondesReussies >= appelsSondes) {
+                    fermer();
+                }
+                return;
+            }
+            if (etat != Etat.FERME) {
+                // Appel parti avant l'ouverture : il ne compte plus
+                return;
+            }
+
+            if (remplis == echecsFenetre.length) {
+                nombreEchecs -= echecsFenetre[position] ? 1 : 0;
+                nombreLents -= lentsFenetre[position] ? 1 : 0;
+            } else {
+                remplis++;
+            }
+            echecsFenetre[position] = echec;
+            lentsFenetre[position] = lent;
+            nombreEchecs += echec ? 1 : 0;
+            nombreLents += lent ? 1 : 0;
+            position = (position + 1) % echecsFenetre.length;
+
+            if (remplis >= appelsMin) {
+                if (nombreEchecs * 100 >= tauxEchec * remplis) {
+                    ouvrir(nombreEchecs + " échecs sur " + remplis + " appels");
+                } else if (nombreLents * 100 >= tauxLents * remplis) {
+                    ouvrir(nombreLents + " appels lents sur " + remplis + " appels");
+                }
+            }
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    private void ouvrir(String raison) {
+        etat = Etat.OUVERT;
+        ouvertJusqua = System.currentTimeMillis() + dureeOuverture;
+        ouvertures.incrementAndGet();
+        LOGGER.warning("Disjoncteur " + nom + " ouvert pour " + dureeOuverture + " ms : " + raison);
+    }
+
+    private void fermer() {
+        etat = Etat.FERME;
+        position = 0;
+        remplis = 0;
+        nombreEchecs = 0;
+        nombreLents = 0;
+        LOGGER.info("Disjoncteur " + nom + " refermé");
+    }
+
+    private static boolean estEchec(RuntimeException e) {
+        return !(e instanceof ReservationException) || e instanceof ServiceExterneException;
+    }
+}
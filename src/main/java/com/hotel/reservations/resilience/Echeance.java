@@ -0,0 +1,121 @@
+package com.hotel.reservations.resilience;
+
+import com.hotel.reservations.exception.AppelRefuseException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Échéance globale d'une requête, propagée aux appels vers les services externes.
+ *
+ * L'échéance courante est portée par le thread ; {@link #lier(Supplier)} la transmet
+ * aux tâches exécutées sur un autre thread. Chaque appel sortant borne ses délais
+ * (attente d'une connexion, lecture) au temps restant au lieu d'un délai fixe, et un
+ * appel n'est pas émis si l'échéance est déjà dépassée.
+ */
+public final class Echeance {
+
+    private static final ThreadLocal<Echeance> COURANTE = new ThreadLocal<>();
+
+    /** Échéance sans limite (budget désactivé). */
+    private static final Echeance INFINIE = new Echeance(Long.MAX_VALUE);
+
+    private final long limiteNanos;
+
+    private Echeance(long limiteNanos) {
+        this.limiteNanos = limiteNanos;
+    }
+
+    /**
+     * Crée une échéance dans la durée donnée (ms), sans dépasser l'échéance courante ;
+     * une durée nulle ou négative n'impose aucune limite propre.
+     */
+    public static Echeance dans(long dureeMs) {
+        Echeance courante = COURANTE.get();
+        Echeance nouvelle = dureeMs > 0
+                ? new Echeance(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(dureeMs))
+                : INFINIE;
+        if (courante != null && (nouvelle == INFINIE || avant(courante, nouvelle))) {
+            return courante;
+        }
+        return nouvelle;
+    }
+
+    /**
+     * Retourne l'échéance du thread courant, ou null.
+     */
+    public static Echeance courante() {
+        return COURANTE.get();
+    }
+
+    /**
+     * Borne un délai (ms) au temps restant avant l'échéance courante (au moins 1 ms).
+     */
+    public static long borner(long delaiMs) {
+        Echeance courante = COURANTE.get();
+        if (courante == null || courante == INFINIE) {
+            return delaiMs;
+        }
+        return Math.max(1, Math.min(delaiMs, courante.restante()));
+    }
+
+    /**
+     * Refuse l'appel vers le service si l'échéance courante est dépassée.
+     */
+    public static void verifier(String service) {
+        Echeance courante = COURANTE.get();
+        if (courante != null && courante.estDepassee()) {
+            throw new AppelRefuseException(service, "Échéance de la requête dépassée avant l'appel au service " + service);
+        }
+    }
+
+    /**
+     * Transmet l'échéance courante (s'il y en a une) à une tâche exécutée sur un autre thread.
+     */
+    public static <T> Supplier<T> propager(Supplier<T> action) {
+        Echeance courante = COURANTE.get();
+        return courante == null ? action : courante.lier(action);
+    }
+
+    /**
+     * Retourne une tâche qui s'exécute sous cette échéance.
+     */
+    public <T> Supplier<T> lier(Supplier<T> action) {
+        return () -> executer(action);
+    }
+
+    /**
+     * Exécute l'action sous cette échéance puis restaure l'échéance précédente du thread.
+     */
+    public <T> T executer(Supplier<T> action) {
+        Echeance precedente = COURANTE.get();
+        COURANTE.set(this);
+        try {
+            return action.get();
+        } finally {
+            if (precedente == null) {
+                COURANTE.remove();
+            } else {
+                COURANTE.set(precedente);
+            }
+        }
+    }
+
+    /**
+     * Temps restant en millisecondes (0 si l'échéance est dépassée).
+     */
+    public long restante() {
+        if (this == INFINIE) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(limiteNanos - System.nanoTime()));
+    }
+
+    public boolean estDepassee() {
+        return this != INFINIE && System.nanoTime() - limiteNanos >= 0;
+    }
+
+    private static boolean avant(Echeance a, Echeance b) {
+        return a != INFINIE && (b == INFINIE || a.limiteNanos - b.limiteNanos <= 0);
+    }
+}
@@ -0,0 +1,91 @@
+package com.hotel.reservations.rest;
+
+import com.hotel.reservations.client.CacheReponsesHttp;
+import com.hotel.reservations.client.ChambreServiceClient;
+import com.hotel.reservations.client.ClientServiceClient;
+import com.hotel.reservations.config.AppConfig;
+import com.hotel.reservations.service.DonneesReference;
+import com.hotel.reservations.service.IndexClients;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.logging.Logger;
+
+/**
+ * API REST d'invalidation des caches locaux.
+ * Permet aux services Clients et Chambres de notifier une modification.
+ */
+@Path("/cache")
+@Produces(MediaType.APPLICATION_JSON)
+public class CacheResource {
+    
+    private static final Logger LOGGER = Logger.getLogger(CacheResource.class.getName());
+    
+    @Inject
+    private ClientServiceClient clientClient;
+    
+    @Inject
+    private ChambreServiceClient chambreClient;
+    
+    @Inject
+    private IndexClients indexClients;
+    
+    @Inject
+    private CacheReponsesHttp cacheHttp;
+    
+    @Inject
+    private DonneesReference donneesReference;
+    
+    @Inject
+    private AppConfig config;
+    
+    /**
+     * Invalide le cache d'un client (ex: changement des frais impayés).
+     * DELETE /api/cache/clients/{id}
+     */
+    @DELETE
+    @Path("/clients/{id}")
+    public Response invaliderClient(@PathParam("id") Long id) {
+        LOGGER.info("DELETE /cache/clients/" + id);
+        clientClient.invaliderClient(id);
+        indexClients.rafraichirClient(id);
+        donneesReference.invaliderClient(id);
+        cacheHttp.invalider(config.getClientServiceUrl());
+        return Response.noContent().build();
+    }
+    
+    /**
+     * Vide le cache des clients.
+     * DELETE /api/cache/clients
+     */
+    @DELETE
+    @Path("/clients")
+    public Response invaliderClients() {
+        LOGGER.info("DELETE /cache/clients");
+        clientClient.invaliderTousLesClients();
+        indexClients.invaliderTout();
+        donneesReference.invaliderClients();
+        cacheHttp.invalider(config.getClientServiceUrl());
+        return Response.noContent().build();
+    }
+    
+    /**
+     * Invalide le cache d'une chambre.
+     * DELETE /api/cache/chambres/{id}
+     */
+    @DELETE
+    @Path("/chambres/{id}")
+    public Response invaliderChambre(@PathParam("id") Long id) {
+        LOGGER.info("DELETE /cache/chambres/" + id);
+        chambreClient.invaliderChambre(id);
+        donneesReference.invaliderChambre(id);
+        cacheHttp.invalider(config.getChambreServiceUrl());
+        return Response.noContent().build();
+    }
+}
@@ -1,21 +1,26 @@
 package com.hotel.reservations.rest;
 
+import com.hotel.reservations.client.CacheReponsesHttp;
+import com.hotel.reservations.client.CacheReponsesHttp.ReponseCachee;
+import com.hotel.reservations.client.PoolConnexionsHttp;
+import com.hotel.reservations.client.PoolConnexionsHttp.BailConnexion;
 import com.hotel.reservations.config.AppConfig;
 
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
-import jakarta.ws.rs.client.Client;
-import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Proxy REST pour contourner les restrictions CORS
  * lors de l'appel au Service Gestion des Chambres.
+ * Les réponses sont relayées en flux via le pool de connexions partagé ;
+ * la liste complète passe par le cache HTTP partagé.
  */
 @Path("/chambres")
 @Produces(MediaType.APPLICATION_JSON)
@@ -26,6 +31,18 @@ public class ChambresProxyResource {
     @Inject
     private AppConfig config;
     
+    @Inject
+    private PoolConnexionsHttp pool;
+    
+    @Inject
+    private CacheReponsesHttp cacheHttp;
+    
+    @Inject
+    private LiberationsRequete liberations;
+    
+    @Context
+    private HttpHeaders headers;
+    
     /**
      * Récupère toutes les chambres depuis le service externe.
      * GET /api/chambres
@@ -34,32 +51,33 @@ public class ChambresProxyResource {
     public Response getAllChambres() {
         LOGGER.info("GET /chambres - Proxy vers service externe");
         
-        Client client = null;
+        BailConnexion bail = null;
         try {
-            client = ClientBuilder.newBuilder()
-                    .connectTimeout(config.getConnectTimeout(), TimeUnit.MILLISECONDS)
-                    .readTimeout(config.getReadTimeout(), TimeUnit.MILLISECONDS)
-                    .build();
-            
             String url = config.getChambreServiceUrl();
+            if (config.isCacheHttpActif()) {
+                ReponseCachee cachee = cacheHttp.obtenir(url);
+                if (cachee != null) {
+                    return ReponsesProxy.depuisCache(cachee, headers);
+                }
+            }
             LOGGER.info("Appel proxy vers: " + url);
             
-            Response response = client.target(url)
+            bail = pool.louer(url);
+            Response response = bail.cible(url)
                     .request(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.ACCEPT_ENCODING, headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING))
                     .get();
             
-            String json = response.readEntity(String.class);
-            return Response.ok(json).build();
+            return ReponsesProxy.relayer(response, bail, liberations);
             
         } catch (Exception e) {
+            if (bail != null) {
+                bail.close();
+            }
             LOGGER.log(Level.WARNING, "Erreur proxy chambres", e);
             return Response.status(Response.Status.SERVICE_UNAVAILABLE)
                     .entity("{\"error\": \"Service des chambres indisponible\"}")
                     .build();
-        } finally {
-            if (client != null) {
-                client.close();
-            }
         }
     }
     
@@ -72,38 +90,35 @@ public class ChambresProxyResource {
     public Response getChambre(@PathParam("id") Long id) {
         LOGGER.info("GET /chambres/" + id + " - Proxy vers service externe");
         
-        Client client = null;
+        BailConnexion bail = null;
         try {
-            client = ClientBuilder.newBuilder()
-                    .connectTimeout(config.getConnectTimeout(), TimeUnit.MILLISECONDS)
-                    .readTimeout(config.getReadTimeout(), TimeUnit.MILLISECONDS)
-                    .build();
-            
             String url = config.getChambreServiceUrl() + "/" + id;
             LOGGER.info("Appel proxy vers: " + url);
             
-            Response response = client.target(url)
+            bail = pool.louer(url);
+            Response response = bail.cible(url)
                     .request(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.ACCEPT_ENCODING, headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING))
                     .get();
             
             if (response.getStatus() == 404) {
+                response.close();
+                bail.close();
                 return Response.status(Response.Status.NOT_FOUND)
                         .entity("{\"error\": \"Chambre non trouvée\"}")
                         .build();
             }
             
-            String json = response.readEntity(String.class);
-            return Response.ok(json).build();
+            return ReponsesProxy.relayer(response, bail, liberations);
             
         } catch (Exception e) {
+            if (bail != null) {
+                bail.close();
+            }
             LOGGER.log(Level.WARNING, "Erreur proxy chambre " + id, e);
             return Response.status(Response.Status.SERVICE_UNAVAILABLE)
                     .entity("{\"error\": \"Service des chambres indisponible\"}")
                     .build();
-        } finally {
-            if (client != null) {
-                client.close();
-            }
         }
     }
 }
@@ -1,21 +1,29 @@
 package com.hotel.reservations.rest;
 
+import com.hotel.reservations.client.CacheReponsesHttp;
+import com.hotel.reservations.client.CacheReponsesHttp.ReponseCachee;
+import com.hotel.reservations.client.PoolConnexionsHttp;
+import com.hotel.reservations.client.PoolConnexionsHttp.BailConnexion;
 import com.hotel.reservations.config.AppConfig;
+import com.hotel.reservations.dto.ClientDTO;
+import com.hotel.reservations.service.IndexClients;
 
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
-import jakarta.ws.rs.client.Client;
-import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
-import java.util.concurrent.TimeUnit;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Proxy REST pour contourner les restrictions CORS
  * lors de l'appel au Service Gestion des Clients.
+ * Les réponses sont relayées en flux via le pool de connexions partagé ;
+ * la liste complète passe par le cache HTTP partagé.
  */
 @Path("/clients")
 @Produces(MediaType.APPLICATION_JSON)
@@ -23,9 +31,27 @@ public class ClientsProxyResource {
     
     private static final Logger LOGGER = Logger.getLogger(ClientsProxyResource.class.getName());
     
+    private static final int LIMITE_RECHERCHE = 20;
+    private static final int LIMITE_MAX_RECHERCHE = 100;
+    
     @Inject
     private AppConfig config;
     
+    @Inject
+    private PoolConnexionsHttp pool;
+    
+    @Inject
+    private CacheReponsesHttp cacheHttp;
+    
+    @Inject
+    private LiberationsRequete liberations;
+    
+    @Inject
+    private IndexClients indexClients;
+    
+    @Context
+    private HttpHeaders headers;
+    
     /**
      * Récupère tous les clients depuis le service externe.
      * GET /api/clients
@@ -34,32 +60,33 @@ public class ClientsProxyResource {
     public Response getAllClients() {
         LOGGER.info("GET /clients - Proxy vers service externe");
         
-        Client client = null;
+        BailConnexion bail = null;
         try {
-            client = ClientBuilder.newBuilder()
-                    .connectTimeout(config.getConnectTimeout(), TimeUnit.MILLISECONDS)
-                    .readTimeout(config.getReadTimeout(), TimeUnit.MILLISECONDS)
-                    .build();
-            
             String url = config.getClientServiceUrl();
+            if (config.isCacheHttpActif()) {
+                ReponseCachee cachee = cacheHttp.obtenir(url);
+                if (cachee != null) {
+                    return ReponsesProxy.depuisCache(cachee, headers);
+                }
+            }
             LOGGER.info("Appel proxy vers: " + url);
             
-            Response response = client.target(url)
+            bail = pool.louer(url);
+            Response response = bail.cible(url)
                     .request(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.ACCEPT_ENCODING, headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING))
                     .get();
             
-            String json = response.readEntity(String.class);
-            return Response.ok(json).build();
+            return ReponsesProxy.relayer(response, bail, liberations);
             
         } catch (Exception e) {
+            if (bail != null) {
+                bail.close();
+            }
             LOGGER.log(Level.WARNING, "Erreur proxy clients", e);
             return Response.status(Response.Status.SERVICE_UNAVAILABLE)
                     .entity("{\"error\": \"Service des clients indisponible\"}")
                     .build();
-        } finally {
-            if (client != null) {
-                client.close();
-            }
         }
     }
     
@@ -72,76 +99,84 @@ public class ClientsProxyResource {
     public Response getClient(@PathParam("id") Long id) {
         LOGGER.info("GET /clients/" + id + " - Proxy vers service externe");
         
-        Client client = null;
+        BailConnexion bail = null;
         try {
-            client = ClientBuilder.newBuilder()
-                    .connectTimeout(config.getConnectTimeout(), TimeUnit.MILLISECONDS)
-                    .readTimeout(config.getReadTimeout(), TimeUnit.MILLISECONDS)
-                    .build();
-            
             String url = config.getClientServiceUrl() + "/" + id;
             LOGGER.info("Appel proxy vers: " + url);
             
-            Response response = client.target(url)
+            bail = pool.louer(url);
+            Response response = bail.cible(url)
                     .request(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.ACCEPT_ENCODING, headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING))
                     .get();
             
             if (response.getStatus() == 404) {
+                response.close();
+                bail.close();
                 return Response.status(Response.Status.NOT_FOUND)
                         .entity("{\"error\": \"Client non trouvé\"}")
                         .build();
             }
             
-            String json = response.readEntity(String.class);
-            return Response.ok(json).build();
+            return ReponsesProxy.relayer(response, bail, liberations);
             
         } catch (Exception e) {
+            if (bail != null) {
+                bail.close();
+            }
             LOGGER.log(Level.WARNING, "Erreur proxy client " + id, e);
             return Response.status(Response.Status.SERVICE_UNAVAILABLE)
                     .entity("{\"error\": \"Service des clients indisponible\"}")
                     .build();
-        } finally {
-            if (client != null) {
-                client.close();
-            }
         }
     }
     
     /**
-     * Recherche des clients par nom ou téléphone.
-     * GET /api/clients/search?q=...
+     * Recherche des clients par nom, prénom ou téléphone.
+     * GET /api/clients/search?q=...&limit=20
+     *
+     * La recherche est servie par l'index local ; tant qu'il n'est pas construit
+     * (ou sans terme de recherche), la liste complète est relayée depuis le service.
      */
     @GET
     @Path("/search")
-    public Response searchClients(@QueryParam("q") String query) {
+    public Response searchClients(@QueryParam("q") String query, @QueryParam("limit") Integer limit) {
+        if (indexClients.estPret() && query != null && !query.isBlank()) {
+            int taille = limit != null ? Math.min(Math.max(limit, 1), LIMITE_MAX_RECHERCHE) : LIMITE_RECHERCHE;
+            List<ClientDTO> resultats = indexClients.rechercher(query, taille);
+            LOGGER.fine("GET /clients/search?q=" + query + " - " + resultats.size() + " résultat(s) (index local)");
+            return Response.ok(resultats).build();
+        }
+        
         LOGGER.info("GET /clients/search?q=" + query + " - Proxy vers service externe");
         
-        Client client = null;
+        BailConnexion bail = null;
         try {
-            client = ClientBuilder.newBuilder()
-                    .connectTimeout(config.getConnectTimeout(), TimeUnit.MILLISECONDS)
-                    .readTimeout(config.getReadTimeout(), TimeUnit.MILLISECONDS)
-                    .build();
-            
             String url = config.getClientServiceUrl();
+            if (config.isCacheHttpActif()) {
+                ReponseCachee cachee = cacheHttp.obtenir(url);
+                if (cachee != null) {
+                    return ReponsesProxy.depuisCache(cachee, headers);
+                }
+            }
             LOGGER.info("Appel proxy vers: " + url);
             
-            Response response = client.target(url)
+            bail = pool.louer(url);
+            Response response = bail.cible(url)
                     .request(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.ACCEPT_ENCODING, headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING))
                     .get();
             
-            String json = response.readEntity(String.class);
-            return Response.ok(json).build();
+            return ReponsesProxy.relayer(response, bail, liberations);
             
         } catch (Exception e) {
+            if (bail != null) {
+                bail.close();
+            }
             LOGGER.log(Level.WARNING, "Erreur proxy recherche clients", e);
             return Response.status(Response.Status.SERVICE_UNAVAILABLE)
                     .entity("{\"error\": \"Service des clients indisponible\"}")
                     .build();
-        } finally {
-            if (client != null) {
-                client.close();
-            }
         }
     }
 }
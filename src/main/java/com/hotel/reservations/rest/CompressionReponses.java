@@ -0,0 +1,232 @@
+package com.hotel.reservations.rest;
+
+import com.hotel.reservations.config.AppConfig;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compression des réponses JSON selon l'en-tête Accept-Encoding (gzip, sinon deflate).
+ *
+ * Le corps est retenu en mémoire jusqu'au seuil configuré : une réponse plus petite part
+ * telle quelle, une réponse plus grande est compressée au fil de l'écriture (les flux
+ * NDJSON restent progressifs). Une réponse qui porte déjà un Content-Encoding, comme
+ * celles relayées par les proxys, n'est pas recompressée.
+ */
+@Provider
+@Priority(Priorities.ENTITY_CODER)
+public class CompressionReponses implements WriterInterceptor {
+
+    private static final String GZIP = "gzip";
+    private static final String DEFLATE = "deflate";
+
+    @Inject
+    private AppConfig config;
+
+    @Context
+    private HttpHeaders requete;
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        MultivaluedMap<String, Object> entetes = context.getHeaders();
+        if (!config.isCompressionActif()
+                || entetes.containsKey(HttpHeaders.CONTENT_ENCODING)
+                || !estCompressible(context.getMediaType())) {
+            context.proceed();
+            return;
+        }
+
+        entetes.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String encodage = negocier(requete.getRequestHeader(HttpHeaders.ACCEPT_ENCODING));
+        if (encodage == null) {
+            context.proceed();
+            return;
+        }
+
+        FluxCompressible flux = new FluxCompressible(context.getOutputStream(), entetes, encodage,
+                config.getCompressionTailleMin());
+        context.setOutputStream(flux);
+        try {
+            context.proceed();
+        } catch (Throwable e) {
+            // Le contenu retenu n'est pas écrit : sous le seuil, la réponse n'est pas encore
+            // engagée et reste disponible pour le traitement de l'erreur
+            flux.abandonner();
+            throw e;
+        }
+        flux.terminer();
+    }
+
+    // --- Méthodes privées ---
+
+    private static boolean estCompressible(MediaType type) {
+        if (type == null) {
+            return false;
+        }
+        String sousType = type.getSubtype().toLowerCase(Locale.ROOT);
+        return type.getType().equalsIgnoreCase("text")
+                || sousType.equals("json") || sousType.endsWith("+json")
+                || sousType.equals("x-ndjson") || sousType.equals("xml");
+    }
+
+    /**
+     * Retourne l'encodage retenu (gzip de préférence), ou null si le client n'en accepte aucun.
+     * La qualité de « * » ne s'applique qu'aux codages que le client n'a pas cités.
+     */
+    static String negocier(List<String> acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        double qualiteGzip = -1;
+        double qualiteDeflate = -1;
+        double qualiteDefaut = 0;
+        for (String valeur : acceptEncoding) {
+            for (String element : valeur.split(",")) {
+                String[] parties = element.trim().split(";");
+                String codage = parties[0].trim().toLowerCase(Locale.ROOT);
+                double qualite = 1;
+                for (int i = 1; i < parties.length; i++) {
+                    String parametre = parties[i].trim();
+                    if (parametre.startsWith("q=")) {
+                        try {
+                            qualite = Double.parseDouble(parametre.substring(2));
+                        } catch (NumberFormatException e) {
+                            qualite = 0;
+                        }
+                    }
+                }
+                switch (codage) {
+                    case GZIP:
+                    case "x-gzip":
+                        qualiteGzip = Math.max(qualiteGzip, qualite);
+                        break;
+                    case DEFLATE:
+                        qualiteDeflate = Math.max(qualiteDeflate, qualite);
+                        break;
+                    case "*":
+                        qualiteDefaut = qualite;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        if (qualiteGzip < 0) {
+            qualiteGzip = qualiteDefaut;
+        }
+        if (qualiteDeflate < 0) {
+            qualiteDeflate = qualiteDefaut;
+        }
+        if (qualiteGzip > 0 && qualiteGzip >= qualiteDeflate) {
+            return GZIP;
+        }
+        return qualiteDeflate > 0 ? DEFLATE : null;
+    }
+
+    /**
+     * Flux qui retient les premiers octets et ne bascule en compression qu'au-delà du seuil.
+     * Les en-têtes sont complétés avant le premier octet écrit sur le flux sous-jacent.
+     */
+    private static final class FluxCompressible extends OutputStream {
+
+        private final OutputStream sortie;
+        private final MultivaluedMap<String, Object> entetes;
+        private final String encodage;
+        private final int seuil;
+        private ByteArrayOutputStream tampon;
+        private DeflaterOutputStream cible;
+        private boolean termine;
+
+        private FluxCompressible(OutputStream sortie, MultivaluedMap<String, Object> entetes,
+                                 String encodage, int seuil) {
+            this.sortie = sortie;
+            this.entetes = entetes;
+            this.encodage = encodage;
+            this.seuil = seuil;
+            this.tampon = new ByteArrayOutputStream(Math.min(seuil, 8192));
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (cible != null) {
+                cible.write(b, off, len);
+                return;
+            }
+            tampon.write(b, off, len);
+            if (tampon.size() >= seuil) {
+                compresser();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Sous le seuil, le contenu reste retenu jusqu'à la décision
+            if (cible != null) {
+                cible.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            terminer();
+        }
+
+        /**
+         * Écrit le contenu retenu (non compressé s'il est sous le seuil) ou termine la compression.
+         * Le flux du conteneur n'est pas fermé : c'est au conteneur de le faire.
+         */
+        private void terminer() throws IOException {
+            if (termine) {
+                return;
+            }
+            termine = true;
+            if (cible == null) {
+                tampon.writeTo(sortie);
+                tampon = null;
+                sortie.flush();
+            } else {
+                cible.finish();
+                cible.flush();
+            }
+        }
+
+        /**
+         * Écriture de l'entité en échec : le contenu retenu est abandonné sans être écrit.
+         */
+        private void abandonner() {
+            termine = true;
+            tampon = null;
+        }
+
+        private void compresser() throws IOException {
+            entetes.putSingle(HttpHeaders.CONTENT_ENCODING, encodage);
+            entetes.remove(HttpHeaders.CONTENT_LENGTH);
+            cible = GZIP.equals(encodage)
+                    ? new GZIPOutputStream(sortie, 8192, true)
+                    : new DeflaterOutputStream(sortie, true);
+            tampon.writeTo(cible);
+            tampon = null;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.hotel.reservations.rest;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.RequestScoped;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Ressources à libérer à la fin de la requête HTTP en cours.
+ *
+ * La fin du contexte de requête survient après l'écriture de la réponse, mais aussi
+ * quand le corps n'est jamais écrit (requête HEAD, filtre ou intercepteur en erreur,
+ * client déconnecté) : une ressource enregistrée ici est libérée dans tous les cas.
+ * Les ressources doivent tolérer une double fermeture.
+ */
+@RequestScoped
+public class LiberationsRequete {
+
+    private static final Logger LOGGER = Logger.getLogger(LiberationsRequete.class.getName());
+
+    private final List<AutoCloseable> ressources = new ArrayList<>();
+
+    public void enregistrer(AutoCloseable ressource) {
+        ressources.add(ressource);
+    }
+
+    @PreDestroy
+    public void liberer() {
+        for (AutoCloseable ressource : ressources) {
+            try {
+                ressource.close();
+            } catch (Exception e) {
+                LOGGER.log(Level.FINE, "Libération d'une ressource de fin de requête impossible", e);
+            }
+        }
+        ressources.clear();
+    }
+}
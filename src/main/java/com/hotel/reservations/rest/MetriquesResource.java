@@ -0,0 +1,93 @@
+package com.hotel.reservations.rest;
+
+import com.hotel.reservations.client.CacheReponsesHttp;
+import com.hotel.reservations.client.ChambreServiceClient;
+import com.hotel.reservations.client.ClientServiceClient;
+import com.hotel.reservations.client.PoolConnexionsHttp;
+import com.hotel.reservations.concurrence.DetecteurEpinglage;
+import com.hotel.reservations.concurrence.ExecuteurTaches;
+import com.hotel.reservations.service.DonneesReference;
+import com.hotel.reservations.service.IndexClients;
+import com.hotel.reservations.service.IndexDisponibilite;
+import com.hotel.reservations.service.RepartiteurStatutChambre;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * API REST exposant les métriques techniques du service.
+ */
+@Path("/metriques")
+@Produces(MediaType.APPLICATION_JSON)
+public class MetriquesResource {
+    
+    private static final Logger LOGGER = Logger.getLogger(MetriquesResource.class.getName());
+    
+    @Inject
+    private PoolConnexionsHttp pool;
+    
+    @Inject
+    private ChambreServiceClient chambreClient;
+    
+    @Inject
+    private ClientServiceClient clientClient;
+    
+    @Inject
+    private RepartiteurStatutChambre repartiteur;
+    
+    @Inject
+    private IndexDisponibilite indexDisponibilite;
+    
+    @Inject
+    private IndexClients indexClients;
+    
+    @Inject
+    private CacheReponsesHttp cacheHttp;
+    
+    @Inject
+    private DonneesReference donneesReference;
+    
+    @Inject
+    private ExecuteurTaches executeurTaches;
+    
+    @Inject
+    private DetecteurEpinglage detecteurEpinglage;
+    
+    /**
+     * Retourne les métriques courantes.
+     * GET /api/metriques
+     */
+    @GET
+    public Response getMetriques() {
+        LOGGER.fine("GET /metriques");
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("poolHttp", pool.getMetriques());
+        metriques.put("cacheChambres", chambreClient.getMetriquesCache());
+        metriques.put("cacheClients", clientClient.getMetriquesCache());
+        Map<String, Object> disjoncteurs = new LinkedHashMap<>();
+        disjoncteurs.put("chambres", chambreClient.getMetriquesDisjoncteur());
+        disjoncteurs.put("clients", clientClient.getMetriquesDisjoncteur());
+        metriques.put("disjoncteurs", disjoncteurs);
+        metriques.put("couvertureChambres", chambreClient.getMetriquesCouverture());
+        Map<String, Object> regroupements = new LinkedHashMap<>();
+        regroupements.put("chambres", chambreClient.getMetriquesRegroupement());
+        regroupements.put("clients", clientClient.getMetriquesRegroupement());
+        metriques.put("regroupements", regroupements);
+        metriques.put("outboxStatutChambre", repartiteur.getMetriques());
+        metriques.put("indexDisponibilite", indexDisponibilite.getMetriques());
+        metriques.put("indexClients", indexClients.getMetriques());
+        metriques.put("cacheHttp", cacheHttp.getMetriques());
+        metriques.put("donneesReference", donneesReference.getMetriques());
+        metriques.put("executeurTaches", executeurTaches.getMetriques());
+        metriques.put("epinglages", detecteurEpinglage.getMetriques());
+        return Response.ok(metriques).build();
+    }
+}
@@ -0,0 +1,172 @@
+package com.hotel.reservations.rest;
+
+import com.hotel.reservations.client.CacheReponsesHttp.ReponseCachee;
+import com.hotel.reservations.client.PoolConnexionsHttp.BailConnexion;
+
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Recopie des réponses des services externes par les proxys REST.
+ *
+ * Le corps est copié du flux amont vers la sortie HTTP au fil de la lecture, avec un
+ * tampon de taille fixe emprunté à un pool : la mémoire consommée ne dépend pas de la
+ * taille de la réponse et le corps n'est jamais décodé.
+ */
+final class ReponsesProxy {
+    
+    private static final int TAILLE_TAMPON = 8192;
+    private static final int TAMPONS_MAX = 64;
+    
+    /** En-têtes amont recopiés sur la réponse relayée. */
+    private static final List<String> ENTETES_RELAYES = List.of(
+            HttpHeaders.CONTENT_LENGTH, HttpHeaders.ETAG, HttpHeaders.CACHE_CONTROL, HttpHeaders.LAST_MODIFIED);
+    
+    private static final Queue<byte[]> TAMPONS = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger TAMPONS_LIBRES = new AtomicInteger();
+    
+    private ReponsesProxy() {
+    }
+    
+    /**
+     * Construit la réponse relayée à partir de la réponse du service externe. Un corps déjà
+     * compressé (Content-Encoding) est transmis sans être décompressé, et l'intercepteur de
+     * compression ne le recompresse pas. La réponse amont et le bail sont libérés une fois
+     * le corps transmis, et au plus tard à la fin de la requête si le corps n'est jamais écrit.
+     */
+    static Response relayer(Response amont, BailConnexion bail, LiberationsRequete liberations) {
+        AtomicBoolean libere = new AtomicBoolean();
+        Runnable liberer = () -> {
+            if (libere.compareAndSet(false, true)) {
+                try {
+                    amont.close();
+                } finally {
+                    bail.close();
+                }
+            }
+        };
+        liberations.enregistrer(liberer::run);
+        
+        String type = amont.getHeaderString(HttpHeaders.CONTENT_TYPE);
+        Response.ResponseBuilder builder = Response.status(amont.getStatus())
+                .type(type != null ? type : MediaType.APPLICATION_JSON);
+        
+        for (String entete : ENTETES_RELAYES) {
+            String valeur = amont.getHeaderString(entete);
+            if (valeur != null) {
+                builder.header(entete, valeur);
+            }
+        }
+        String encodage = amont.getHeaderString(HttpHeaders.CONTENT_ENCODING);
+        if (encodage != null && !encodage.equalsIgnoreCase("identity")) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, encodage)
+                   .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        
+        if (!amont.hasEntity()) {
+            liberer.run();
+            return builder.build();
+        }
+        
+        StreamingOutput corps = sortie -> {
+            byte[] tampon = emprunter();
+            try (InputStream entree = amont.readEntity(InputStream.class)) {
+                int lus;
+                while ((lus = entree.read(tampon)) != -1) {
+                    sortie.write(tampon, 0, lus);
+                }
+                sortie.flush();
+            } finally {
+                rendre(tampon);
+                liberer.run();
+            }
+        };
+        return builder.entity(corps).build();
+    }
+    
+    /**
+     * Construit la réponse à partir d'une réponse du cache HTTP. Un If-None-Match du client
+     * égal à l'ETag conservé donne un 304 ; un corps conservé compressé en gzip est transmis
+     * tel quel si le client accepte gzip, et décompressé au fil de l'écriture sinon.
+     */
+    static Response depuisCache(ReponseCachee cachee, HttpHeaders requete) {
+        String etag = cachee.getEtag();
+        String ifNoneMatch = requete.getHeaderString(HttpHeaders.IF_NONE_MATCH);
+        if (etag != null && ifNoneMatch != null && cachee.getStatus() == 200
+                && (ifNoneMatch.trim().equals("*") || List.of(ifNoneMatch.split("\\s*,\\s*")).contains(etag))) {
+            return Response.notModified()
+                    .header(HttpHeaders.ETAG, etag)
+                    .header(HttpHeaders.CACHE_CONTROL, cachee.getCacheControl())
+                    .build();
+        }
+        
+        String type = cachee.getContentType();
+        Response.ResponseBuilder builder = Response.status(cachee.getStatus())
+                .type(type != null ? type : MediaType.APPLICATION_JSON)
+                .header("Age", cachee.getAge());
+        if (etag != null) {
+            builder.header(HttpHeaders.ETAG, etag);
+        }
+        if (cachee.getCacheControl() != null) {
+            builder.header(HttpHeaders.CACHE_CONTROL, cachee.getCacheControl());
+        }
+        if (cachee.getLastModified() != null) {
+            builder.header(HttpHeaders.LAST_MODIFIED, cachee.getLastModified());
+        }
+        
+        String encodage = cachee.getContentEncoding();
+        byte[] corps = cachee.getCorps();
+        if (encodage == null || encodage.equalsIgnoreCase("identity")) {
+            return builder.entity(corps).build();
+        }
+        builder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = encodage.equalsIgnoreCase("gzip");
+        if (!gzip || "gzip".equals(CompressionReponses.negocier(requete.getRequestHeader(HttpHeaders.ACCEPT_ENCODING)))) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, encodage).entity(corps).build();
+        }
+        
+        StreamingOutput decompresse = sortie -> {
+            byte[] tampon = emprunter();
+            try (InputStream entree = new GZIPInputStream(new ByteArrayInputStream(corps), TAILLE_TAMPON)) {
+                int lus;
+                while ((lus = entree.read(tampon)) != -1) {
+                    sortie.write(tampon, 0, lus);
+                }
+                sortie.flush();
+            } finally {
+                rendre(tampon);
+            }
+        };
+        return builder.entity(decompresse).build();
+    }
+    
+    // --- Méthodes privées ---
+    
+    private static byte[] emprunter() {
+        byte[] tampon = TAMPONS.poll();
+        if (tampon == null) {
+            return new byte[TAILLE_TAMPON];
+        }
+        TAMPONS_LIBRES.decrementAndGet();
+        return tampon;
+    }
+    
+    private static void rendre(byte[] tampon) {
+        if (TAMPONS_LIBRES.incrementAndGet() <= TAMPONS_MAX) {
+            TAMPONS.offer(tampon);
+        } else {
+            TAMPONS_LIBRES.decrementAndGet();
+        }
+    }
+}
@@ -1,28 +1,66 @@
 package com.hotel.reservations.rest;
 
+import com.hotel.reservations.concurrence.ExecuteurTaches;
+import com.hotel.reservations.config.AppConfig;
+import com.hotel.reservations.dto.DetailRapport;
+import com.hotel.reservations.dto.DisponibilitesDTO;
 import com.hotel.reservations.dto.ErrorResponseDTO;
+import com.hotel.reservations.dto.LotReservationsDTO;
+import com.hotel.reservations.dto.PageDTO;
 import com.hotel.reservations.dto.RapportReservationsDTO;
 import com.hotel.reservations.dto.ReservationDTO;
+import com.hotel.reservations.dto.ResultatLotDTO;
 import com.hotel.reservations.entity.StatutReservation;
 import com.hotel.reservations.exception.ChambreNonDisponibleException;
-import com.hotel.reservations.exception.ClientNonValideException;
 import com.hotel.reservations.exception.ReservationException;
 import com.hotel.reservations.exception.ReservationNotFoundException;
+import com.hotel.reservations.exception.ServiceExterneException;
+import com.hotel.reservations.exception.VersionObsoleteException;
+import com.hotel.reservations.service.DonneesReference;
 import com.hotel.reservations.service.ReservationService;
 
 import jakarta.inject.Inject;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import jakarta.json.bind.JsonbException;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.CacheControl;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriBuilder;
 import jakarta.ws.rs.core.UriInfo;
 
+import java.io.BufferedWriter;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 /**
  * API REST pour la gestion des réservations.
@@ -34,54 +72,96 @@ public class ReservationResource {
     
     private static final Logger LOGGER = Logger.getLogger(ReservationResource.class.getName());
     
+    private static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+    
+    /** Avancement d'un traitement asynchrone (voir executer). */
+    private static final int TRAITEMENT_EN_ATTENTE = 0;
+    private static final int TRAITEMENT_DEMARRE = 1;
+    private static final int TRAITEMENT_ANNULE = 2;
+    private static final Jsonb JSONB = JsonbBuilder.create();
+    
     @Inject
     private ReservationService reservationService;
     
+    @Inject
+    private AppConfig config;
+    
+    @Inject
+    private DonneesReference donneesReference;
+    
+    @Inject
+    private ExecuteurTaches executeurTaches;
+    
     @Context
     private UriInfo uriInfo;
     
+    @Context
+    private Request request;
+    
     /**
      * Crée une nouvelle réservation.
      * POST /api/reservations
      */
     @POST
-    public Response creerReservation(@Valid @NotNull ReservationDTO dto) {
+    public void creerReservation(@Valid @NotNull ReservationDTO dto, @Suspended AsyncResponse asyncResponse) {
         LOGGER.info("POST /reservations - Création d'une réservation");
-        try {
+        UriBuilder locationBuilder = uriInfo.getAbsolutePathBuilder();
+        URI suivi = uriInfo.getAbsolutePathBuilder().queryParam("clientId", dto.getClientId()).build();
+        executer(asyncResponse, suivi, () -> {
             ReservationDTO created = reservationService.creerReservation(dto);
-            URI location = uriInfo.getAbsolutePathBuilder()
+            URI location = locationBuilder
                     .path(String.valueOf(created.getId()))
                     .build();
             return Response.created(location).entity(created).build();
-        } catch (ChambreNonDisponibleException e) {
-            LOGGER.log(Level.WARNING, "Chambre non disponible", e);
-            return Response.status(Response.Status.CONFLICT)
-                    .entity(new ErrorResponseDTO(409, e.getMessage(), e.getCode()))
-                    .build();
-        } catch (ClientNonValideException e) {
-            LOGGER.log(Level.WARNING, "Client non valide", e);
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ErrorResponseDTO(400, e.getMessage(), e.getCode()))
-                    .build();
-        } catch (ReservationException e) {
-            LOGGER.log(Level.WARNING, "Erreur de réservation", e);
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ErrorResponseDTO(400, e.getMessage(), e.getCode()))
-                    .build();
-        }
+        });
+    }
+    
+    /**
+     * Crée un lot de réservations (groupes, tour-opérateurs).
+     * POST /api/reservations/batch
+     *
+     * Répond 201 si tout le lot est créé, 409 si un lot tout-ou-rien est refusé,
+     * 200 sinon ; le détail par élément figure dans la réponse.
+     */
+    @POST
+    @Path("/batch")
+    public void creerReservations(@NotNull LotReservationsDTO lot, @Suspended AsyncResponse asyncResponse) {
+        LOGGER.info("POST /reservations/batch - Création d'un lot de réservations");
+        executer(asyncResponse, null, () -> {
+            ResultatLotDTO resultat = reservationService.creerReservations(lot);
+            Response.Status status;
+            if (resultat.getNombreRefusees() == 0) {
+                status = Response.Status.CREATED;
+            } else if (resultat.isToutOuRien()) {
+                status = Response.Status.CONFLICT;
+            } else {
+                status = Response.Status.OK;
+            }
+            return Response.status(status).entity(resultat).build();
+        });
     }
     
     /**
      * Récupère une réservation par son ID.
      * GET /api/reservations/{id}
+     * GET /api/reservations/{id}?enrich=true (nom du client, numéro et type de chambre)
+     * Répond 304 si l'en-tête If-None-Match contient l'ETag courant.
      */
     @GET
     @Path("/{id}")
-    public Response getReservation(@PathParam("id") Long id) {
-        LOGGER.info("GET /reservations/" + id);
+    public Response getReservation(@PathParam("id") Long id, @QueryParam("enrich") boolean enrich) {
+        LOGGER.info("GET /reservations/" + id + (enrich ? "?enrich=true" : ""));
         try {
             ReservationDTO reservation = reservationService.getReservation(id);
-            return Response.ok(reservation).build();
+            if (enrich) {
+                donneesReference.enrichir(List.of(reservation));
+            }
+            EntityTag etag = etag(reservation);
+            Response.ResponseBuilder nonModifie = request.evaluatePreconditions(etag);
+            if (nonModifie != null) {
+                return nonModifie.cacheControl(revalidation()).build();
+            }
+            return Response.ok(reservation).tag(etag).cacheControl(revalidation()).build();
         } catch (ReservationNotFoundException e) {
             LOGGER.log(Level.WARNING, "Réservation non trouvée: " + id, e);
             return Response.status(Response.Status.NOT_FOUND)
@@ -95,44 +175,177 @@ public class ReservationResource {
      * GET /api/reservations
      * GET /api/reservations?statut=CONFIRMEE
      * GET /api/reservations?clientId=1
+     * GET /api/reservations?limit=50&curseur=...&fields=id,statut,dateDebut
+     * GET /api/reservations?enrich=true (nom du client, numéro et type de chambre)
      */
     @GET
     public Response listerReservations(
             @QueryParam("statut") String statut,
-            @QueryParam("clientId") Long clientId) {
-        LOGGER.info("GET /reservations - statut=" + statut + ", clientId=" + clientId);
+            @QueryParam("clientId") Long clientId,
+            @QueryParam("limit") Integer limit,
+            @QueryParam("curseur") String curseur,
+            @QueryParam("fields") String fields,
+            @QueryParam("enrich") boolean enrich) {
+        LOGGER.info("GET /reservations - statut=" + statut + ", clientId=" + clientId
+                + ", limit=" + limit + ", fields=" + fields);
+        
+        StatutReservation statutEnum = null;
+        if (statut != null && !statut.isEmpty()) {
+            try {
+                statutEnum = StatutReservation.valueOf(statut.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(new ErrorResponseDTO(400, "Statut invalide: " + statut))
+                        .build();
+            }
+        }
+        
+        // Mode paginé (curseur) et/ou projection de champs
+        if (limit != null || curseur != null || fields != null) {
+            List<String> champs = null;
+            if (fields != null && !fields.isBlank()) {
+                champs = Arrays.stream(fields.split(","))
+                        .map(String::trim)
+                        .filter(champ -> !champ.isEmpty())
+                        .distinct()
+                        .collect(Collectors.toList());
+            }
+            try {
+                PageDTO<?> page = reservationService.listerReservationsPage(statutEnum, clientId, curseur, limit, champs);
+                if (champs != null) {
+                    return Response.ok(page).build();
+                }
+                @SuppressWarnings("unchecked")
+                List<ReservationDTO> elements = (List<ReservationDTO>) page.getElements();
+                if (enrich) {
+                    donneesReference.enrichir(elements);
+                }
+                return reponseCollection(page, elements);
+            } catch (ReservationException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(new ErrorResponseDTO(400, e.getMessage(), e.getCode()))
+                        .build();
+            }
+        }
         
         List<ReservationDTO> reservations;
         
         if (clientId != null) {
             reservations = reservationService.listerReservationsParClient(clientId);
-        } else if (statut != null && !statut.isEmpty()) {
+        } else if (statutEnum != null) {
+            reservations = reservationService.listerReservationsParStatut(statutEnum);
+        } else {
+            reservations = reservationService.listerReservations();
+        }
+        if (enrich) {
+            donneesReference.enrichir(reservations);
+        }
+        
+        return reponseCollection(reservations, reservations);
+    }
+    
+    /**
+     * Exporte les réservations en flux NDJSON (une réservation JSON par ligne),
+     * écrites au fur et à mesure de leur lecture en base.
+     * GET /api/reservations avec l'en-tête Accept: application/x-ndjson
+     */
+    @GET
+    @Produces(MEDIA_TYPE_NDJSON + ";qs=0.5")
+    public Response exporterReservations(
+            @QueryParam("statut") String statut,
+            @QueryParam("clientId") Long clientId) {
+        LOGGER.info("GET /reservations (NDJSON) - statut=" + statut + ", clientId=" + clientId);
+        
+        StatutReservation statutEnum = null;
+        if (statut != null && !statut.isEmpty()) {
             try {
-                StatutReservation statutEnum = StatutReservation.valueOf(statut.toUpperCase());
-                reservations = reservationService.listerReservationsParStatut(statutEnum);
+                statutEnum = StatutReservation.valueOf(statut.toUpperCase());
             } catch (IllegalArgumentException e) {
                 return Response.status(Response.Status.BAD_REQUEST)
+                        .type(MediaType.APPLICATION_JSON)
                         .entity(new ErrorResponseDTO(400, "Statut invalide: " + statut))
                         .build();
             }
-        } else {
-            reservations = reservationService.listerReservations();
         }
         
-        return Response.ok(reservations).build();
+        StatutReservation filtreStatut = statutEnum;
+        StreamingOutput flux = sortie -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(sortie, StandardCharsets.UTF_8));
+            try {
+                reservationService.parcourirReservations(filtreStatut, clientId,
+                        reservation -> ecrireLigneNdjson(writer, reservation));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+        };
+        return Response.ok(flux, MEDIA_TYPE_NDJSON).build();
+    }
+    
+    /**
+     * Recherche les chambres libres sur une période.
+     * GET /api/reservations/disponibilites?dateDebut=2025-01-10&dateFin=2025-01-15
+     */
+    @GET
+    @Path("/disponibilites")
+    public Response rechercherDisponibilites(
+            @QueryParam("dateDebut") String dateDebut,
+            @QueryParam("dateFin") String dateFin) {
+        LOGGER.info("GET /reservations/disponibilites - dateDebut=" + dateDebut + ", dateFin=" + dateFin);
+        
+        LocalDate debut;
+        LocalDate fin;
+        try {
+            debut = LocalDate.parse(dateDebut);
+            fin = LocalDate.parse(dateFin);
+        } catch (DateTimeParseException | NullPointerException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponseDTO(400, "Dates invalides, format attendu: AAAA-MM-JJ"))
+                    .build();
+        }
+        
+        try {
+            DisponibilitesDTO disponibilites = reservationService.rechercherDisponibilites(debut, fin);
+            return Response.ok(disponibilites).build();
+        } catch (ServiceExterneException e) {
+            LOGGER.log(Level.WARNING, "Liste des chambres indisponible", e);
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .entity(new ErrorResponseDTO(503, e.getMessage(), e.getCode()))
+                    .build();
+        } catch (ReservationException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponseDTO(400, e.getMessage(), e.getCode()))
+                    .build();
+        }
     }
     
     /**
      * Modifie une réservation existante.
      * PUT /api/reservations/{id}
+     * Avec l'en-tête If-Match, répond 412 si la réservation a été modifiée depuis.
      */
     @PUT
     @Path("/{id}")
-    public Response modifierReservation(@PathParam("id") Long id, @Valid ReservationDTO dto) {
+    public Response modifierReservation(@PathParam("id") Long id, @Valid ReservationDTO dto,
+                                        @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
         LOGGER.info("PUT /reservations/" + id);
         try {
-            ReservationDTO updated = reservationService.modifierReservation(id, dto);
-            return Response.ok(updated).build();
+            Integer versionAttendue = null;
+            if (ifMatch != null && !ifMatch.trim().equals("*")) {
+                versionAttendue = versionDepuisEtag(id, ifMatch);
+                if (versionAttendue == null) {
+                    return Response.status(Response.Status.PRECONDITION_FAILED)
+                            .entity(new ErrorResponseDTO(412, "En-tête If-Match invalide pour la réservation " + id))
+                            .build();
+                }
+            }
+            ReservationDTO updated = reservationService.modifierReservation(id, dto, versionAttendue);
+            return Response.ok(updated).tag(etag(updated)).build();
+        } catch (VersionObsoleteException | OptimisticLockException e) {
+            LOGGER.log(Level.INFO, "Modification concurrente de la réservation " + id, e);
+            return Response.status(Response.Status.PRECONDITION_FAILED)
+                    .entity(new ErrorResponseDTO(412, e.getMessage(), "VERSION_OBSOLETE"))
+                    .build();
         } catch (ReservationNotFoundException e) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity(new ErrorResponseDTO(404, e.getMessage()))
@@ -154,20 +367,9 @@ public class ReservationResource {
      */
     @DELETE
     @Path("/{id}")
-    public Response annulerReservation(@PathParam("id") Long id) {
+    public void annulerReservation(@PathParam("id") Long id, @Suspended AsyncResponse asyncResponse) {
         LOGGER.info("DELETE /reservations/" + id);
-        try {
-            ReservationDTO cancelled = reservationService.annulerReservation(id);
-            return Response.ok(cancelled).build();
-        } catch (ReservationNotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity(new ErrorResponseDTO(404, e.getMessage()))
-                    .build();
-        } catch (ReservationException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ErrorResponseDTO(400, e.getMessage(), e.getCode()))
-                    .build();
-        }
+        executer(asyncResponse, ressource(id), () -> Response.ok(reservationService.annulerReservation(id)).build());
     }
     
     /**
@@ -176,20 +378,9 @@ public class ReservationResource {
      */
     @POST
     @Path("/{id}/confirmer")
-    public Response confirmerReservation(@PathParam("id") Long id) {
+    public void confirmerReservation(@PathParam("id") Long id, @Suspended AsyncResponse asyncResponse) {
         LOGGER.info("POST /reservations/" + id + "/confirmer");
-        try {
-            ReservationDTO confirmed = reservationService.confirmerReservation(id);
-            return Response.ok(confirmed).build();
-        } catch (ReservationNotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity(new ErrorResponseDTO(404, e.getMessage()))
-                    .build();
-        } catch (ReservationException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ErrorResponseDTO(400, e.getMessage(), e.getCode()))
-                    .build();
-        }
+        executer(asyncResponse, ressource(id), () -> Response.ok(reservationService.confirmerReservation(id)).build());
     }
     
     /**
@@ -198,20 +389,9 @@ public class ReservationResource {
      */
     @POST
     @Path("/{id}/checkin")
-    public Response checkIn(@PathParam("id") Long id) {
+    public void checkIn(@PathParam("id") Long id, @Suspended AsyncResponse asyncResponse) {
         LOGGER.info("POST /reservations/" + id + "/checkin");
-        try {
-            ReservationDTO result = reservationService.checkIn(id);
-            return Response.ok(result).build();
-        } catch (ReservationNotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity(new ErrorResponseDTO(404, e.getMessage()))
-                    .build();
-        } catch (ReservationException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ErrorResponseDTO(400, e.getMessage(), e.getCode()))
-                    .build();
-        }
+        executer(asyncResponse, ressource(id), () -> Response.ok(reservationService.checkIn(id)).build());
     }
     
     /**
@@ -220,15 +400,40 @@ public class ReservationResource {
      */
     @POST
     @Path("/{id}/checkout")
-    public Response checkOut(@PathParam("id") Long id) {
+    public void checkOut(@PathParam("id") Long id, @Suspended AsyncResponse asyncResponse) {
         LOGGER.info("POST /reservations/" + id + "/checkout");
+        executer(asyncResponse, ressource(id), () -> Response.ok(reservationService.checkOut(id)).build());
+    }
+    
+    /**
+     * Génère le rapport des réservations.
+     * GET /api/reservations/rapport
+     * GET /api/reservations/rapport?detail=none
+     * GET /api/reservations/rapport?detail=page&limit=20&curseurAVenir=...
+     */
+    @GET
+    @Path("/rapport")
+    public Response genererRapport(
+            @QueryParam("detail") String detail,
+            @QueryParam("limit") Integer limit,
+            @QueryParam("curseurOccupations") String curseurOccupations,
+            @QueryParam("curseurAVenir") String curseurAVenir) {
+        LOGGER.info("GET /reservations/rapport - detail=" + detail);
+        
+        DetailRapport niveau = DetailRapport.FULL;
+        if (detail != null && !detail.isEmpty()) {
+            try {
+                niveau = DetailRapport.valueOf(detail.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(new ErrorResponseDTO(400, "Niveau de détail invalide: " + detail))
+                        .build();
+            }
+        }
+        
         try {
-            ReservationDTO result = reservationService.checkOut(id);
-            return Response.ok(result).build();
-        } catch (ReservationNotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity(new ErrorResponseDTO(404, e.getMessage()))
-                    .build();
+            RapportReservationsDTO rapport = reservationService.genererRapport(niveau, limit, curseurOccupations, curseurAVenir);
+            return Response.ok(rapport).build();
         } catch (ReservationException e) {
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity(new ErrorResponseDTO(400, e.getMessage(), e.getCode()))
@@ -236,15 +441,187 @@ public class ReservationResource {
         }
     }
     
+    // --- Méthodes privées ---
+    
     /**
-     * Génère le rapport des réservations.
-     * GET /api/reservations/rapport
+     * Écrit une réservation sur une ligne JSON, avec la même représentation (JSON-B) que
+     * les réponses application/json.
      */
-    @GET
-    @Path("/rapport")
-    public Response genererRapport() {
-        LOGGER.info("GET /reservations/rapport");
-        RapportReservationsDTO rapport = reservationService.genererRapport();
-        return Response.ok(rapport).build();
+    private static void ecrireLigneNdjson(Writer writer, ReservationDTO reservation) {
+        try {
+            JSONB.toJson(reservation, new FilterWriter(writer) {
+                @Override
+                public void close() {
+                    // Le flux de sortie reste ouvert pour les lignes suivantes
+                }
+            });
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (JsonbException e) {
+            // Erreur d'écriture (client déconnecté) enveloppée par JSON-B
+            if (e.getCause() instanceof IOException) {
+                throw new UncheckedIOException((IOException) e.getCause());
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Les lectures peuvent être mises en cache mais doivent être revalidées (If-None-Match).
+     * Une nouvelle instance à chaque réponse : CacheControl est modifiable.
+     */
+    private static CacheControl revalidation() {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoCache(true);
+        cacheControl.setNoTransform(false);
+        return cacheControl;
+    }
+    
+    /**
+     * ETag fort d'une réservation, dérivé de son identifiant et de sa version.
+     */
+    private static EntityTag etag(ReservationDTO reservation) {
+        return new EntityTag(reservation.getId() + "-" + reservation.getVersion() + suffixeEnrichissement(reservation));
+    }
+    
+    /**
+     * Empreinte des champs enrichis, pour qu'un changement de nom de client ou de
+     * chambre modifie l'ETag d'une représentation enrichie.
+     */
+    private static String suffixeEnrichissement(ReservationDTO reservation) {
+        if (reservation.getNomClient() == null && reservation.getNumeroChambre() == null
+                && reservation.getTypeChambre() == null) {
+            return "";
+        }
+        return "." + Integer.toHexString(Objects.hash(
+                reservation.getNomClient(), reservation.getNumeroChambre(), reservation.getTypeChambre()));
+    }
+    
+    /**
+     * Extrait la version d'un en-tête If-Match ("id-version"), ou null s'il ne désigne
+     * pas la réservation. Plusieurs ETags peuvent être listés : le premier qui correspond est retenu.
+     */
+    private static Integer versionDepuisEtag(Long id, String ifMatch) {
+        String prefixe = id + "-";
+        for (String valeur : ifMatch.split(",")) {
+            String tag = valeur.trim();
+            if (tag.startsWith("\"") && tag.endsWith("\"") && tag.length() > 1) {
+                tag = tag.substring(1, tag.length() - 1);
+                if (tag.startsWith(prefixe)) {
+                    String version = tag.substring(prefixe.length());
+                    int suffixe = version.indexOf('.');
+                    try {
+                        return Integer.valueOf(suffixe >= 0 ? version.substring(0, suffixe) : version);
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Réponse d'une liste avec un ETag calculé sur les couples (id, version) des éléments
+     * (et leurs champs enrichis) :
+     * 304 si le client possède déjà cette liste.
+     */
+    private Response reponseCollection(Object entite, List<ReservationDTO> reservations) {
+        CRC32 crc = new CRC32();
+        for (ReservationDTO reservation : reservations) {
+            crc.update((reservation.getId() + "-" + reservation.getVersion() + suffixeEnrichissement(reservation) + ";")
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        EntityTag etag = new EntityTag(reservations.size() + "-" + Long.toHexString(crc.getValue()));
+        Response.ResponseBuilder nonModifie = request.evaluatePreconditions(etag);
+        if (nonModifie != null) {
+            return nonModifie.cacheControl(revalidation()).build();
+        }
+        return Response.ok(entite).tag(etag).cacheControl(revalidation()).build();
+    }
+    
+    /**
+     * Exécute un traitement d'écriture sur l'exécuteur de tâches (le thread de requête du
+     * conteneur est rendu, le traitement reste bloquant sur un thread de l'exécuteur) ou
+     * directement selon la configuration.
+     *
+     * À l'expiration du délai, la réponse dépend de l'avancement : si le traitement n'a
+     * pas démarré, il est annulé et la réponse 503 garantit qu'aucune modification n'a eu
+     * lieu (la requête peut être réessayée) ; s'il a démarré, il va jusqu'à son terme et
+     * la réponse 202 indique où consulter le résultat avant tout nouvel essai.
+     *
+     * @param suivi ressource permettant de constater le résultat (peut être null)
+     */
+    private void executer(AsyncResponse asyncResponse, URI suivi, Supplier<Response> traitement) {
+        if (!config.isRestAsyncActif()) {
+            reprendre(asyncResponse, traitement);
+            return;
+        }
+        
+        AtomicInteger etat = new AtomicInteger(TRAITEMENT_EN_ATTENTE);
+        asyncResponse.setTimeout(config.getRestAsyncTimeout(), TimeUnit.MILLISECONDS);
+        asyncResponse.setTimeoutHandler(ar -> {
+            if (etat.compareAndSet(TRAITEMENT_EN_ATTENTE, TRAITEMENT_ANNULE)) {
+                ar.resume(Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, 1)
+                        .entity(new ErrorResponseDTO(503, "Délai dépassé avant traitement : aucune modification effectuée"))
+                        .build());
+            } else {
+                Response.ResponseBuilder enCours = Response.accepted(new ErrorResponseDTO(202,
+                        "Traitement en cours : consulter le résultat avant de réessayer"));
+                if (suivi != null) {
+                    enCours.location(suivi);
+                }
+                ar.resume(enCours.build());
+            }
+        });
+        try {
+            executeurTaches.execute(() -> {
+                if (etat.compareAndSet(TRAITEMENT_EN_ATTENTE, TRAITEMENT_DEMARRE)) {
+                    reprendre(asyncResponse, traitement);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOGGER.log(Level.WARNING, "Traitement asynchrone refusé", e);
+            asyncResponse.resume(Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .entity(new ErrorResponseDTO(503, "Service surchargé, veuillez réessayer"))
+                    .build());
+        }
+    }
+    
+    private URI ressource(Long id) {
+        return uriInfo.getBaseUriBuilder().path(ReservationResource.class).path(String.valueOf(id)).build();
+    }
+    
+    /**
+     * Exécute le traitement et reprend la requête suspendue avec la réponse,
+     * en appliquant les mêmes codes d'erreur qu'en mode synchrone.
+     */
+    private void reprendre(AsyncResponse asyncResponse, Supplier<Response> traitement) {
+        Response response;
+        try {
+            response = traitement.get();
+        } catch (ReservationNotFoundException e) {
+            LOGGER.log(Level.WARNING, "Réservation non trouvée", e);
+            response = Response.status(Response.Status.NOT_FOUND)
+                    .entity(new ErrorResponseDTO(404, e.getMessage()))
+                    .build();
+        } catch (ChambreNonDisponibleException e) {
+            LOGGER.log(Level.WARNING, "Chambre non disponible", e);
+            response = Response.status(Response.Status.CONFLICT)
+                    .entity(new ErrorResponseDTO(409, e.getMessage(), e.getCode()))
+                    .build();
+        } catch (ReservationException e) {
+            LOGGER.log(Level.WARNING, "Erreur de réservation", e);
+            response = Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponseDTO(400, e.getMessage(), e.getCode()))
+                    .build();
+        } catch (RuntimeException e) {
+            // Traité par GlobalExceptionHandler
+            asyncResponse.resume(e);
+            return;
+        }
+        asyncResponse.resume(response);
     }
 }
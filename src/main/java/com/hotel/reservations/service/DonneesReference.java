@@ -0,0 +1,212 @@
+package com.hotel.reservations.service;
+
+import com.hotel.reservations.client.ChambreServiceClient;
+import com.hotel.reservations.client.ClientServiceClient;
+import com.hotel.reservations.client.ClientServiceClient.ListeClients;
+import com.hotel.reservations.config.AppConfig;
+import com.hotel.reservations.dto.ChambreDTO;
+import com.hotel.reservations.dto.ClientDTO;
+import com.hotel.reservations.dto.ReservationDTO;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Données de référence (chambres, clients) servant à enrichir les réservations lues
+ * (nom du client, numéro et type de chambre).
+ *
+ * Les listes complètes sont chargées au démarrage puis rafraîchies en arrière-plan
+ * (requête conditionnelle pour les clients). Les identifiants encore inconnus d'une
+ * liste de réservations sont chargés ensemble par un seul appel groupé : l'enrichissement
+ * n'ajoute pas d'appel distant par ligne. Ceux que le service déclare inconnus ne sont
+ * plus redemandés avant le rafraîchissement suivant ; ceux en échec le sont à la lecture suivante.
+ */
+@ApplicationScoped
+public class DonneesReference {
+
+    private static final Logger LOGGER = Logger.getLogger(DonneesReference.class.getName());
+
+    @Inject
+    private ChambreServiceClient chambreClient;
+
+    @Inject
+    private ClientServiceClient clientClient;
+
+    @Inject
+    private AppConfig config;
+
+    @Resource
+    private ManagedScheduledExecutorService scheduler;
+
+    private final Map<Long, ChambreDTO> chambres = new ConcurrentHashMap<>();
+    private final Map<Long, ClientDTO> clients = new ConcurrentHashMap<>();
+    // Identifiants déclarés inconnus par le service (404, absents d'une réponse par lot),
+    // jusqu'au prochain rafraîchissement ; un identifiant en échec n'y est pas ajouté
+    private final Set<Long> chambresIntrouvables = ConcurrentHashMap.newKeySet();
+    private final Set<Long> clientsIntrouvables = ConcurrentHashMap.newKeySet();
+    private volatile String etagClients;
+    private ScheduledFuture<?> tacheRafraichissement;
+
+    private final AtomicLong reservationsEnrichies = new AtomicLong();
+    private final AtomicLong chargementsGroupes = new AtomicLong();
+    private final AtomicLong rafraichissements = new AtomicLong();
+
+    /**
+     * Charge les données de référence au lancement puis planifie leur rafraîchissement.
+     */
+    public void demarrer(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        if (!config.isReferenceActif()) {
+            LOGGER.info("Préchargement des données de référence désactivé");
+            return;
+        }
+        long periode = config.getReferenceRafraichissement();
+        tacheRafraichissement = scheduler.scheduleWithFixedDelay(this::rafraichir, 0, periode, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void arreter() {
+        if (tacheRafraichissement != null) {
+            tacheRafraichissement.cancel(false);
+        }
+    }
+
+    /**
+     * Renseigne le nom du client, le numéro et le type de chambre des réservations.
+     * Les références absentes sont chargées en un appel groupé par service ; une
+     * référence introuvable laisse les champs correspondants vides.
+     */
+    public void enrichir(Collection<ReservationDTO> reservations) {
+        Set<Long> chambresManquantes = new LinkedHashSet<>();
+        Set<Long> clientsManquants = new LinkedHashSet<>();
+        for (ReservationDTO reservation : reservations) {
+            Long chambreId = reservation.getChambreId();
+            if (chambreId != null && !chambres.containsKey(chambreId) && !chambresIntrouvables.contains(chambreId)) {
+                chambresManquantes.add(chambreId);
+            }
+            Long clientId = reservation.getClientId();
+            if (clientId != null && !clients.containsKey(clientId) && !clientsIntrouvables.contains(clientId)) {
+                clientsManquants.add(clientId);
+            }
+        }
+        // Sans rafraîchissement planifié, rien ne viderait les identifiants inconnus : ils sont redemandés
+        boolean memoriserInconnus = tacheRafraichissement != null;
+        if (!chambresManquantes.isEmpty()) {
+            chargementsGroupes.incrementAndGet();
+            chambres.putAll(chambreClient.getChambres(chambresManquantes,
+                    memoriserInconnus ? chambresIntrouvables : new HashSet<>()));
+        }
+        if (!clientsManquants.isEmpty()) {
+            chargementsGroupes.incrementAndGet();
+            clients.putAll(clientClient.getClients(clientsManquants,
+                    memoriserInconnus ? clientsIntrouvables : new HashSet<>()));
+        }
+
+        for (ReservationDTO reservation : reservations) {
+            ClientDTO client = reservation.getClientId() != null ? clients.get(reservation.getClientId()) : null;
+            if (client != null) {
+                reservation.setNomClient(client.getNomComplet());
+            }
+            ChambreDTO chambre = reservation.getChambreId() != null ? chambres.get(reservation.getChambreId()) : null;
+            if (chambre != null) {
+                reservation.setNumeroChambre(chambre.getNumero());
+                reservation.setTypeChambre(chambre.getType());
+            }
+        }
+        reservationsEnrichies.addAndGet(reservations.size());
+    }
+
+    /**
+     * Oublie un client modifié : il sera rechargé au prochain enrichissement.
+     */
+    public void invaliderClient(Long clientId) {
+        clients.remove(clientId);
+        clientsIntrouvables.remove(clientId);
+    }
+
+    /**
+     * Force le rechargement complet de la liste des clients.
+     */
+    public void invaliderClients() {
+        etagClients = null;
+        clientsIntrouvables.clear();
+        if (tacheRafraichissement != null) {
+            scheduler.execute(this::rafraichir);
+        }
+    }
+
+    /**
+     * Oublie une chambre modifiée : elle sera rechargée au prochain enrichissement.
+     */
+    public void invaliderChambre(Long chambreId) {
+        chambres.remove(chambreId);
+        chambresIntrouvables.remove(chambreId);
+    }
+
+    /**
+     * Retourne les compteurs des données de référence.
+     */
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("chambres", chambres.size());
+        metriques.put("clients", clients.size());
+        metriques.put("chambresIntrouvables", chambresIntrouvables.size());
+        metriques.put("clientsIntrouvables", clientsIntrouvables.size());
+        metriques.put("reservationsEnrichies", reservationsEnrichies.get());
+        metriques.put("chargementsGroupes", chargementsGroupes.get());
+        metriques.put("rafraichissements", rafraichissements.get());
+        return metriques;
+    }
+
+    // --- Méthodes privées ---
+
+    private void rafraichir() {
+        try {
+            List<ChambreDTO> liste = chambreClient.listerChambres();
+            Set<Long> presentes = new HashSet<>();
+            for (ChambreDTO chambre : liste) {
+                presentes.add(chambre.getId());
+                chambres.put(chambre.getId(), chambre);
+            }
+            chambres.keySet().retainAll(presentes);
+            chambresIntrouvables.clear();
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Erreur lors du rafraîchissement des chambres de référence", e);
+        }
+
+        try {
+            ListeClients liste = clientClient.listerClients(etagClients);
+            if (!liste.isInchangee()) {
+                Set<Long> presents = new HashSet<>();
+                for (ClientDTO client : liste.getClients()) {
+                    presents.add(client.getId());
+                    clients.put(client.getId(), client);
+                }
+                clients.keySet().retainAll(presents);
+                etagClients = liste.getEtag();
+            }
+            clientsIntrouvables.clear();
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Erreur lors du rafraîchissement des clients de référence", e);
+        }
+        rafraichissements.incrementAndGet();
+    }
+}
@@ -0,0 +1,336 @@
+package com.hotel.reservations.service;
+
+import com.hotel.reservations.client.ClientServiceClient;
+import com.hotel.reservations.client.ClientServiceClient.ListeClients;
+import com.hotel.reservations.config.AppConfig;
+import com.hotel.reservations.dto.ClientDTO;
+import com.hotel.reservations.exception.ClientNonValideException;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Index de recherche local des clients (nom, prénom, téléphone).
+ *
+ * Les termes normalisés (minuscules, sans accents ; chiffres seuls pour le téléphone)
+ * sont rangés dans une table triée qui sert d'arbre de préfixes : une recherche est un
+ * parcours de plage. Les suffixes du téléphone sont aussi indexés pour retrouver un
+ * client à partir de ses derniers chiffres. L'index est rafraîchi périodiquement par
+ * différence avec la liste du service Clients (requête conditionnelle) et client par
+ * client lors des notifications d'invalidation.
+ */
+@ApplicationScoped
+public class IndexClients {
+
+    private static final Logger LOGGER = Logger.getLogger(IndexClients.class.getName());
+
+    /** Longueur minimale d'un suffixe de téléphone indexé. */
+    private static final int LONGUEUR_MIN_SUFFIXE = 4;
+
+    private static final int SCORE_EXACT = 3;
+    private static final int SCORE_PREFIXE = 2;
+    private static final int SCORE_SUFFIXE_TELEPHONE = 1;
+
+    @Inject
+    private ClientServiceClient clientClient;
+
+    @Inject
+    private AppConfig config;
+
+    @Resource
+    private ManagedScheduledExecutorService scheduler;
+
+    private final Map<Long, ClientDTO> clients = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> termesParClient = new ConcurrentHashMap<>();
+    private final NavigableMap<String, Set<Long>> termes = new ConcurrentSkipListMap<>();
+
+    private final Object verrouEcriture = new Object();
+    private volatile boolean pret;
+    private volatile String etagListe;
+    private ScheduledFuture<?> tacheRafraichissement;
+
+    private final AtomicLong recherches = new AtomicLong();
+    private final AtomicLong rafraichissements = new AtomicLong();
+    private final AtomicLong listesInchangees = new AtomicLong();
+    private final AtomicLong miseAJourClients = new AtomicLong();
+
+    /**
+     * Construit l'index au lancement puis planifie son rafraîchissement.
+     */
+    public void demarrer(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        if (!config.isIndexClientsActif()) {
+            LOGGER.info("Index de recherche des clients désactivé");
+            return;
+        }
+        long periode = config.getIndexClientsRafraichissement();
+        tacheRafraichissement = scheduler.scheduleWithFixedDelay(this::rafraichir, 0, periode, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void arreter() {
+        if (tacheRafraichissement != null) {
+            tacheRafraichissement.cancel(false);
+        }
+    }
+
+    /**
+     * Indique si l'index peut répondre aux recherches à la place du service Clients.
+     */
+    public boolean estPret() {
+        return pret;
+    }
+
+    /**
+     * Recherche les clients dont chaque terme de la requête préfixe le nom, le prénom
+     * ou le téléphone. Les résultats sont classés par pertinence puis par nom.
+     */
+    public List<ClientDTO> rechercher(String requete, int limite) {
+        recherches.incrementAndGet();
+        List<String> termesRequete = decouper(requete);
+        if (termesRequete.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> scores = null;
+        for (String terme : termesRequete) {
+            Map<Long, Integer> scoresTerme = new HashMap<>();
+            for (Map.Entry<String, Set<Long>> entree : termes.subMap(terme, true, terme + Character.MAX_VALUE, false).entrySet()) {
+                int score = scorer(terme, entree.getKey());
+                for (Long id : entree.getValue()) {
+                    scoresTerme.merge(id, score, Math::max);
+                }
+            }
+            // Tous les termes doivent correspondre
+            if (scores == null) {
+                scores = scoresTerme;
+            } else {
+                scores.keySet().retainAll(scoresTerme.keySet());
+                scores.replaceAll((id, score) -> score + scoresTerme.get(id));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        Map<Long, Integer> resultats = scores;
+        Comparator<ClientDTO> ordre = Comparator.<ClientDTO>comparingInt(c -> -resultats.get(c.getId()))
+                .thenComparing(c -> Objects.toString(c.getNom(), ""), String.CASE_INSENSITIVE_ORDER)
+                .thenComparing(c -> Objects.toString(c.getPrenom(), ""), String.CASE_INSENSITIVE_ORDER)
+                .thenComparing(ClientDTO::getId);
+        List<ClientDTO> trouves = new ArrayList<>();
+        for (Long id : resultats.keySet()) {
+            ClientDTO client = clients.get(id);
+            if (client != null) {
+                trouves.add(client);
+            }
+        }
+        trouves.sort(ordre);
+        return trouves.size() > limite ? new ArrayList<>(trouves.subList(0, limite)) : trouves;
+    }
+
+    /**
+     * Recharge en arrière-plan un client depuis le service (notification de modification)
+     * et met l'index à jour.
+     */
+    public void rafraichirClient(Long clientId) {
+        if (!pret) {
+            return;
+        }
+        scheduler.execute(() -> {
+            try {
+                indexer(clientClient.rechargerClient(clientId));
+            } catch (ClientNonValideException e) {
+                retirer(clientId);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.FINE, "Rafraîchissement du client " + clientId + " dans l'index impossible", e);
+            }
+        });
+    }
+
+    /**
+     * Force un rechargement complet au prochain rafraîchissement.
+     */
+    public void invaliderTout() {
+        etagListe = null;
+        if (pret) {
+            scheduler.execute(this::rafraichir);
+        }
+    }
+
+    /**
+     * Retourne les compteurs de l'index.
+     */
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("pret", pret);
+        metriques.put("clients", clients.size());
+        metriques.put("termes", termes.size());
+        metriques.put("recherches", recherches.get());
+        metriques.put("rafraichissements", rafraichissements.get());
+        metriques.put("listesInchangees", listesInchangees.get());
+        metriques.put("miseAJourClients", miseAJourClients.get());
+        return metriques;
+    }
+
+    // --- Méthodes privées ---
+
+    /**
+     * Applique la différence entre la liste du service et l'index : seuls les clients
+     * ajoutés, modifiés ou supprimés sont réindexés.
+     */
+    private void rafraichir() {
+        try {
+            ListeClients liste = clientClient.listerClients(etagListe);
+            if (liste.isInchangee()) {
+                listesInchangees.incrementAndGet();
+                return;
+            }
+
+            Set<Long> presents = new HashSet<>();
+            for (ClientDTO client : liste.getClients()) {
+                presents.add(client.getId());
+                if (!identiques(client, clients.get(client.getId()))) {
+                    indexer(client);
+                }
+            }
+            for (Long id : new ArrayList<>(clients.keySet())) {
+                if (!presents.contains(id)) {
+                    retirer(id);
+                }
+            }
+
+            etagListe = liste.getEtag();
+            rafraichissements.incrementAndGet();
+            if (!pret) {
+                pret = true;
+                LOGGER.info("Index de recherche des clients construit: " + clients.size() + " clients, "
+                        + termes.size() + " termes");
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Erreur lors du rafraîchissement de l'index des clients", e);
+        }
+    }
+
+    private void indexer(ClientDTO client) {
+        Set<String> nouveaux = termesDe(client);
+        synchronized (verrouEcriture) {
+            Set<String> anciens = termesParClient.put(client.getId(), nouveaux);
+            if (anciens != null) {
+                for (String terme : anciens) {
+                    if (!nouveaux.contains(terme)) {
+                        retirerTerme(terme, client.getId());
+                    }
+                }
+            }
+            for (String terme : nouveaux) {
+                termes.computeIfAbsent(terme, t -> ConcurrentHashMap.newKeySet()).add(client.getId());
+            }
+            clients.put(client.getId(), client);
+        }
+        miseAJourClients.incrementAndGet();
+    }
+
+    private void retirer(Long clientId) {
+        synchronized (verrouEcriture) {
+            clients.remove(clientId);
+            Set<String> anciens = termesParClient.remove(clientId);
+            if (anciens != null) {
+                anciens.forEach(terme -> retirerTerme(terme, clientId));
+            }
+        }
+    }
+
+    private void retirerTerme(String terme, Long clientId) {
+        Set<Long> ids = termes.get(terme);
+        if (ids != null) {
+            ids.remove(clientId);
+            if (ids.isEmpty()) {
+                termes.remove(terme);
+            }
+        }
+    }
+
+    private static Set<String> termesDe(ClientDTO client) {
+        Set<String> resultat = new HashSet<>();
+        resultat.addAll(decouper(client.getNom()));
+        resultat.addAll(decouper(client.getPrenom()));
+        String chiffres = chiffres(client.getTelephone());
+        for (int debut = 0; chiffres.length() - debut >= LONGUEUR_MIN_SUFFIXE; debut++) {
+            resultat.add(chiffres.substring(debut));
+        }
+        return resultat;
+    }
+
+    /**
+     * Découpe un texte en termes normalisés ; un terme composé uniquement de chiffres
+     * et de séparateurs de téléphone est réduit à ses chiffres.
+     */
+    private static List<String> decouper(String texte) {
+        List<String> resultat = new ArrayList<>();
+        if (texte == null || texte.isBlank()) {
+            return resultat;
+        }
+        String normalise = Normalizer.normalize(texte, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        if (normalise.matches("[\\d\\s+().-]+")) {
+            String chiffres = chiffres(normalise);
+            if (!chiffres.isEmpty()) {
+                resultat.add(chiffres);
+            }
+            return resultat;
+        }
+        for (String terme : normalise.split("[^\\p{L}\\p{N}]+")) {
+            if (!terme.isEmpty()) {
+                resultat.add(terme);
+            }
+        }
+        return resultat;
+    }
+
+    private static String chiffres(String texte) {
+        return texte == null ? "" : texte.replaceAll("\\D", "");
+    }
+
+    private static int scorer(String terme, String indexe) {
+        if (indexe.equals(terme)) {
+            return SCORE_EXACT;
+        }
+        return Character.isDigit(terme.charAt(0)) ? SCORE_SUFFIXE_TELEPHONE : SCORE_PREFIXE;
+    }
+
+    private static boolean identiques(ClientDTO a, ClientDTO b) {
+        return b != null
+                && Objects.equals(a.getNom(), b.getNom())
+                && Objects.equals(a.getPrenom(), b.getPrenom())
+                && Objects.equals(a.getTelephone(), b.getTelephone())
+                && Objects.equals(a.getEmail(), b.getEmail())
+                && a.isFraisImpayes() == b.isFraisImpayes()
+                && a.getNombreSejours() == b.getNombreSejours();
+    }
+}
@@ -0,0 +1,398 @@
+package com.hotel.reservations.service;
+
+import com.hotel.reservations.config.AppConfig;
+import com.hotel.reservations.dto.ReservationDTO;
+import com.hotel.reservations.entity.StatutReservation;
+import com.hotel.reservations.event.ReservationModifiee;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Index en mémoire des réservations actives (hors ANNULEE et TERMINEE) par chambre.
+ *
+ * Construit au démarrage depuis la base puis tenu à jour à chaque changement d'état
+ * validé, il permet de détecter les chevauchements sans requête SQL. Une modification
+ * (retrait puis ajout, éventuellement d'une chambre à l'autre) est appliquée sous le
+ * verrou des chambres concernées : une recherche ne voit jamais la chambre sans la
+ * réservation en cours de modification. Un contrôle périodique compare l'index à la base
+ * et le reconstruit quand un écart persiste d'un contrôle au suivant.
+ */
+@ApplicationScoped
+public class IndexDisponibilite {
+
+    private static final Logger LOGGER = Logger.getLogger(IndexDisponibilite.class.getName());
+
+    @PersistenceContext(unitName = "HotelReservationPU")
+    private EntityManager em;
+
+    @Inject
+    private AppConfig config;
+
+    @Resource
+    private ManagedScheduledExecutorService scheduler;
+
+    private final Map<Long, IndexChambre> chambres = new ConcurrentHashMap<>();
+    private final Map<Long, Intervalle> intervalles = new ConcurrentHashMap<>();
+
+    private final Object verrouReconstruction = new Object();
+    private final Object verrouEcriture = new Object();
+    private Set<Long> ecartsPrecedents = Set.of();
+    private List<ReservationModifiee> evenementsPendantReconstruction;
+    private volatile boolean pret;
+    private ScheduledFuture<?> tacheVerification;
+
+    private final AtomicLong recherches = new AtomicLong();
+    private final AtomicLong reconstructions = new AtomicLong();
+    private final AtomicLong incoherences = new AtomicLong();
+
+    /**
+     * Construit l'index au lancement de l'application.
+     */
+    public void demarrer(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        if (!config.isIndexDisponibiliteActif()) {
+            LOGGER.info("Index de disponibilité désactivé");
+            return;
+        }
+        try {
+            reconstruire();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Construction de l'index de disponibilité impossible, utilisation de la base", e);
+        }
+        long periode = config.getIndexDisponibiliteVerification();
+        tacheVerification = scheduler.scheduleWithFixedDelay(this::verifierCoherence, periode, periode, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void arreter() {
+        if (tacheVerification != null) {
+            tacheVerification.cancel(false);
+        }
+    }
+
+    /**
+     * Indique si l'index peut être utilisé à la place de la base.
+     */
+    public boolean estPret() {
+        return pret;
+    }
+
+    /**
+     * Retourne les identifiants des réservations actives de la chambre qui chevauchent
+     * la période [dateDebut, dateFin] (bornes incluses, comme Reservation.checkChevauchement).
+     */
+    public List<Long> chevauchements(Long chambreId, LocalDate dateDebut, LocalDate dateFin, Long excludeReservationId) {
+        recherches.incrementAndGet();
+        IndexChambre index = chambres.get(chambreId);
+        if (index == null) {
+            return List.of();
+        }
+        return index.chevauchements(dateDebut, dateFin, excludeReservationId);
+    }
+
+    /**
+     * Retourne l'ensemble des chambres ayant au moins une réservation active
+     * qui chevauche la période [dateDebut, dateFin].
+     */
+    public Set<Long> chambresOccupees(LocalDate dateDebut, LocalDate dateFin) {
+        recherches.incrementAndGet();
+        Set<Long> occupees = new HashSet<>();
+        chambres.forEach((chambreId, index) -> {
+            if (index.estOccupee(dateDebut, dateFin)) {
+                occupees.add(chambreId);
+            }
+        });
+        return occupees;
+    }
+
+    /**
+     * Met à jour l'index après validation d'un changement sur une réservation.
+     */
+    public void surModification(@Observes(during = TransactionPhase.AFTER_SUCCESS) ReservationModifiee event) {
+        if (!config.isIndexDisponibiliteActif()) {
+            return;
+        }
+        synchronized (verrouReconstruction) {
+            if (evenementsPendantReconstruction != null) {
+                evenementsPendantReconstruction.add(event);
+            }
+        }
+        appliquer(event.getReservation());
+    }
+
+    /**
+     * Retourne les compteurs de l'index.
+     */
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("pret", pret);
+        metriques.put("reservations", intervalles.size());
+        metriques.put("chambres", chambres.size());
+        metriques.put("recherches", recherches.get());
+        metriques.put("reconstructions", reconstructions.get());
+        metriques.put("incoherences", incoherences.get());
+        return metriques;
+    }
+
+    // --- Méthodes privées ---
+
+    /**
+     * Recharge l'index depuis la base. Les événements reçus pendant la lecture
+     * sont rejoués ensuite pour ne pas perdre de mise à jour.
+     */
+    private void reconstruire() {
+        synchronized (verrouReconstruction) {
+            evenementsPendantReconstruction = new ArrayList<>();
+        }
+        try {
+            Map<Long, Intervalle> charges = chargerDepuisBase();
+
+            Map<Long, IndexChambre> nouvelles = new HashMap<>();
+            for (Intervalle intervalle : charges.values()) {
+                nouvelles.computeIfAbsent(intervalle.chambreId, id -> new IndexChambre()).ajouter(intervalle);
+            }
+
+            // Remplacement chambre par chambre : l'index n'est jamais vu vide
+            List<ReservationModifiee> aRejouer;
+            synchronized (verrouReconstruction) {
+                synchronized (verrouEcriture) {
+                    chambres.putAll(nouvelles);
+                    chambres.keySet().retainAll(nouvelles.keySet());
+                    intervalles.putAll(charges);
+                    intervalles.keySet().retainAll(charges.keySet());
+                }
+                aRejouer = evenementsPendantReconstruction;
+                evenementsPendantReconstruction = null;
+            }
+            aRejouer.forEach(e -> appliquer(e.getReservation()));
+
+            pret = true;
+            reconstructions.incrementAndGet();
+            LOGGER.info("Index de disponibilité construit: " + intervalles.size() + " réservations actives, "
+                    + chambres.size() + " chambres");
+        } finally {
+            synchronized (verrouReconstruction) {
+                evenementsPendantReconstruction = null;
+            }
+        }
+    }
+
+    /**
+     * Compare l'index à la base et le reconstruit si un écart constaté au contrôle
+     * précédent est toujours présent. Un écart isolé vient en général d'une transaction
+     * validée entre la lecture de la base et celle de l'index.
+     */
+    private void verifierCoherence() {
+        try {
+            Map<Long, Intervalle> base = chargerDepuisBase();
+            Set<Long> ecarts = new HashSet<>();
+            for (Intervalle attendu : base.values()) {
+                if (!attendu.equals(intervalles.get(attendu.id))) {
+                    ecarts.add(attendu.id);
+                }
+            }
+            for (Long id : intervalles.keySet()) {
+                if (!base.containsKey(id)) {
+                    ecarts.add(id);
+                }
+            }
+
+            Set<Long> persistants = new HashSet<>(ecarts);
+            persistants.retainAll(ecartsPrecedents);
+            ecartsPrecedents = ecarts;
+
+            if (!persistants.isEmpty() || !pret) {
+                incoherences.addAndGet(persistants.size());
+                LOGGER.warning("Index de disponibilité incohérent avec la base (" + persistants.size()
+                        + " écarts persistants), reconstruction");
+                ecartsPrecedents = Set.of();
+                reconstruire();
+            } else if (!ecarts.isEmpty()) {
+                LOGGER.fine("Index de disponibilité : " + ecarts.size() + " écarts à confirmer au prochain contrôle");
+            } else {
+                LOGGER.fine("Index de disponibilité cohérent avec la base");
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Erreur lors du contrôle de cohérence de l'index de disponibilité", e);
+        }
+    }
+
+    private Map<Long, Intervalle> chargerDepuisBase() {
+        List<Object[]> lignes = em.createNamedQuery("Reservation.findIntervallesActifs", Object[].class)
+                .getResultList();
+        Map<Long, Intervalle> resultat = new HashMap<>(lignes.size() * 2);
+        for (Object[] ligne : lignes) {
+            Intervalle intervalle = new Intervalle((Long) ligne[0], (Long) ligne[1], (LocalDate) ligne[2], (LocalDate) ligne[3]);
+            resultat.put(intervalle.id, intervalle);
+        }
+        return resultat;
+    }
+
+    /**
+     * Remplace l'intervalle d'une réservation en une seule étape sous le verrou de
+     * l'ancienne et de la nouvelle chambre (pris dans l'ordre des identifiants).
+     */
+    private void appliquer(ReservationDTO reservation) {
+        Intervalle nouveau = estActive(reservation.getStatut())
+                ? new Intervalle(reservation.getId(), reservation.getChambreId(),
+                        reservation.getDateDebut(), reservation.getDateFin())
+                : null;
+        synchronized (verrouEcriture) {
+            Intervalle ancien = intervalles.get(reservation.getId());
+            IndexChambre source = ancien != null ? chambres.get(ancien.chambreId) : null;
+            IndexChambre cible = nouveau != null
+                    ? chambres.computeIfAbsent(nouveau.chambreId, id -> new IndexChambre())
+                    : null;
+
+            if (source == null || cible == null || source == cible) {
+                IndexChambre seule = source != null ? source : cible;
+                if (seule != null) {
+                    synchronized (seule) {
+                        remplacer(source, ancien, cible, nouveau);
+                    }
+                }
+            } else {
+                boolean sourceDabord = ancien.chambreId < nouveau.chambreId;
+                IndexChambre premiere = sourceDabord ? source : cible;
+                IndexChambre seconde = sourceDabord ? cible : source;
+                synchronized (premiere) {
+                    synchronized (seconde) {
+                        remplacer(source, ancien, cible, nouveau);
+                    }
+                }
+            }
+
+            if (nouveau != null) {
+                intervalles.put(nouveau.id, nouveau);
+            } else {
+                intervalles.remove(reservation.getId());
+            }
+        }
+    }
+
+    private static void remplacer(IndexChambre source, Intervalle ancien, IndexChambre cible, Intervalle nouveau) {
+        if (source != null) {
+            source.retirer(ancien);
+        }
+        if (cible != null) {
+            cible.ajouter(nouveau);
+        }
+    }
+
+    private static boolean estActive(StatutReservation statut) {
+        return statut != StatutReservation.ANNULEE && statut != StatutReservation.TERMINEE;
+    }
+
+    /**
+     * Réservations actives d'une chambre triées par date de début. La durée maximale
+     * d'un séjour borne la recherche : un intervalle qui chevauche [debut, fin] commence
+     * nécessairement dans [debut - dureeMax, fin].
+     */
+    private static final class IndexChambre {
+
+        private final TreeMap<LocalDate, Map<Long, Intervalle>> parDebut = new TreeMap<>();
+        private long dureeMax;
+
+        private synchronized void ajouter(Intervalle intervalle) {
+            parDebut.computeIfAbsent(intervalle.dateDebut, d -> new HashMap<>(2)).put(intervalle.id, intervalle);
+            dureeMax = Math.max(dureeMax, ChronoUnit.DAYS.between(intervalle.dateDebut, intervalle.dateFin));
+        }
+
+        private synchronized void retirer(Intervalle intervalle) {
+            Map<Long, Intervalle> memeDebut = parDebut.get(intervalle.dateDebut);
+            if (memeDebut != null) {
+                memeDebut.remove(intervalle.id);
+                if (memeDebut.isEmpty()) {
+                    parDebut.remove(intervalle.dateDebut);
+                }
+            }
+        }
+
+        private synchronized boolean estOccupee(LocalDate dateDebut, LocalDate dateFin) {
+            if (parDebut.isEmpty() || dateFin.isBefore(dateDebut.minusDays(dureeMax))) {
+                return false;
+            }
+            for (Map<Long, Intervalle> memeDebut : parDebut.subMap(dateDebut.minusDays(dureeMax), true, dateFin, true).values()) {
+                for (Intervalle intervalle : memeDebut.values()) {
+                    if (!intervalle.dateFin.isBefore(dateDebut)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private synchronized List<Long> chevauchements(LocalDate dateDebut, LocalDate dateFin, Long excludeReservationId) {
+            if (dateFin.isBefore(dateDebut.minusDays(dureeMax))) {
+                return List.of();
+            }
+            List<Long> resultat = new ArrayList<>(1);
+            NavigableMap<LocalDate, Map<Long, Intervalle>> candidats =
+                    parDebut.subMap(dateDebut.minusDays(dureeMax), true, dateFin, true);
+            for (Map<Long, Intervalle> memeDebut : candidats.values()) {
+                for (Intervalle intervalle : memeDebut.values()) {
+                    if (!intervalle.dateFin.isBefore(dateDebut) && !intervalle.id.equals(excludeReservationId)) {
+                        resultat.add(intervalle.id);
+                    }
+                }
+            }
+            return resultat;
+        }
+    }
+
+    private static final class Intervalle {
+
+        private final Long id;
+        private final Long chambreId;
+        private final LocalDate dateDebut;
+        private final LocalDate dateFin;
+
+        private Intervalle(Long id, Long chambreId, LocalDate dateDebut, LocalDate dateFin) {
+            this.id = id;
+            this.chambreId = chambreId;
+            this.dateDebut = dateDebut;
+            this.dateFin = dateFin;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Intervalle that = (Intervalle) o;
+            return id.equals(that.id) && chambreId.equals(that.chambreId)
+                    && dateDebut.equals(that.dateDebut) && dateFin.equals(that.dateFin);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, chambreId, dateDebut, dateFin);
+        }
+    }
+}
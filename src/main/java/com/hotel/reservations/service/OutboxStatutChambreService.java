@@ -0,0 +1,86 @@
+package com.hotel.reservations.service;
+
+import com.hotel.reservations.entity.EvenementStatutChambre;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Service d'accès à l'outbox des statuts de chambre.
+ */
+@ApplicationScoped
+@Transactional
+public class OutboxStatutChambreService {
+    
+    private static final Logger LOGGER = Logger.getLogger(OutboxStatutChambreService.class.getName());
+    
+    @PersistenceContext(unitName = "HotelReservationPU")
+    private EntityManager em;
+    
+    /**
+     * Enregistre un changement de statut dans la transaction courante.
+     */
+    public void enregistrer(Long chambreId, String statut) {
+        LOGGER.fine("Outbox: chambre " + chambreId + " -> " + statut);
+        em.persist(new EvenementStatutChambre(chambreId, statut));
+    }
+    
+    /**
+     * Retourne le prochain lot à envoyer : le dernier événement de chaque chambre
+     * dont la prochaine tentative est échue, dans la limite de la taille du lot.
+     */
+    public List<EvenementStatutChambre> lotAEnvoyer(int tailleLot) {
+        List<EvenementStatutChambre> evenements = em.createNamedQuery("EvenementStatutChambre.findAEnvoyer", EvenementStatutChambre.class)
+                .setParameter("maintenant", LocalDateTime.now())
+                .setMaxResults(tailleLot * 4)
+                .getResultList();
+        
+        // Seul le statut le plus récent de chaque chambre est envoyé
+        Map<Long, EvenementStatutChambre> derniers = new LinkedHashMap<>();
+        for (EvenementStatutChambre evenement : evenements) {
+            if (derniers.size() >= tailleLot && !derniers.containsKey(evenement.getChambreId())) {
+                continue;
+            }
+            derniers.put(evenement.getChambreId(), evenement);
+        }
+        return List.copyOf(derniers.values());
+    }
+    
+    /**
+     * Supprime l'événement envoyé ainsi que les statuts plus anciens de la même chambre.
+     */
+    public void marquerEnvoye(EvenementStatutChambre evenement) {
+        em.createNamedQuery("EvenementStatutChambre.supprimerJusqua")
+                .setParameter("chambreId", evenement.getChambreId())
+                .setParameter("id", evenement.getId())
+                .executeUpdate();
+    }
+    
+    /**
+     * Reporte l'envoi des statuts de la chambre à la date donnée.
+     */
+    public void marquerEchec(EvenementStatutChambre evenement, LocalDateTime prochaineTentative, String erreur) {
+        em.createNamedQuery("EvenementStatutChambre.reporterJusqua")
+                .setParameter("tentatives", evenement.getTentatives() + 1)
+                .setParameter("prochaineTentative", prochaineTentative)
+                .setParameter("erreur", erreur)
+                .setParameter("chambreId", evenement.getChambreId())
+                .setParameter("id", evenement.getId())
+                .executeUpdate();
+    }
+    
+    /**
+     * Nombre d'événements en attente d'envoi.
+     */
+    public long compter() {
+        return em.createNamedQuery("EvenementStatutChambre.count", Long.class).getSingleResult();
+    }
+}
@@ -0,0 +1,147 @@
+package com.hotel.reservations.service;
+
+import com.hotel.reservations.client.ChambreServiceClient;
+import com.hotel.reservations.config.AppConfig;
+import com.hotel.reservations.entity.EvenementStatutChambre;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Répartiteur de l'outbox : envoie en arrière-plan les statuts de chambre
+ * au Service Chambres, par lots, avec reprise et backoff exponentiel.
+ */
+@ApplicationScoped
+public class RepartiteurStatutChambre {
+    
+    private static final Logger LOGGER = Logger.getLogger(RepartiteurStatutChambre.class.getName());
+    
+    /** Nombre de tentatives à partir duquel un échec est signalé en erreur (une fois). */
+    private static final int SEUIL_ALERTE_TENTATIVES = 10;
+    
+    @Inject
+    private AppConfig config;
+    
+    @Inject
+    private OutboxStatutChambreService outbox;
+    
+    @Inject
+    private ChambreServiceClient chambreClient;
+    
+    @Resource
+    private ManagedScheduledExecutorService scheduler;
+    
+    private ScheduledFuture<?> tache;
+    
+    private final AtomicLong envoyes = new AtomicLong();
+    private final AtomicLong echecs = new AtomicLong();
+    private final AtomicLong rejetes = new AtomicLong();
+    
+    /**
+     * Démarre le répartiteur au lancement de l'application.
+     */
+    public void demarrer(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        tache = scheduler.scheduleWithFixedDelay(this::traiterLot,
+                config.getOutboxIntervalle(), config.getOutboxIntervalle(), TimeUnit.MILLISECONDS);
+        LOGGER.info("Répartiteur des statuts de chambre démarré (intervalle: " + config.getOutboxIntervalle() + " ms)");
+    }
+    
+    @PreDestroy
+    public void arreter() {
+        if (tache != null) {
+            tache.cancel(false);
+        }
+    }
+    
+    /**
+     * Retourne les compteurs du répartiteur.
+     */
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("envoyes", envoyes.get());
+        metriques.put("echecs", echecs.get());
+        metriques.put("rejetes", rejetes.get());
+        try {
+            metriques.put("enAttente", outbox.compter());
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.FINE, "Comptage de l'outbox impossible", e);
+        }
+        return metriques;
+    }
+    
+    // --- Méthodes privées ---
+    
+    private void traiterLot() {
+        try {
+            List<EvenementStatutChambre> lot = outbox.lotAEnvoyer(config.getOutboxTailleLot());
+            for (EvenementStatutChambre evenement : lot) {
+                envoyer(evenement);
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Erreur lors du traitement de l'outbox des statuts de chambre", e);
+        }
+    }
+    
+    /**
+     * Envoie un statut. Un refus définitif du service Chambres (4xx) supprime l'événement :
+     * le renvoyer ne changerait rien. Seules les erreurs transitoires sont retentées.
+     */
+    private void envoyer(EvenementStatutChambre evenement) {
+        String erreur;
+        try {
+            if (chambreClient.mettreAJourStatutChambre(evenement.getChambreId(), evenement.getStatut())) {
+                outbox.marquerEnvoye(evenement);
+                envoyes.incrementAndGet();
+            } else {
+                LOGGER.severe("Statut " + evenement.getStatut() + " de la chambre " + evenement.getChambreId()
+                        + " refusé par le service Chambres, abandonné après " + (evenement.getTentatives() + 1)
+                        + " tentative(s)");
+                outbox.marquerEnvoye(evenement);
+                rejetes.incrementAndGet();
+            }
+            return;
+        } catch (RuntimeException e) {
+            erreur = e.getMessage();
+        }
+        
+        echecs.incrementAndGet();
+        int tentatives = evenement.getTentatives() + 1;
+        long delai = calculerDelai(tentatives);
+        if (tentatives == SEUIL_ALERTE_TENTATIVES) {
+            LOGGER.severe("Statut de la chambre " + evenement.getChambreId() + " non propagé après "
+                    + tentatives + " tentatives: " + erreur);
+        } else {
+            LOGGER.warning("Échec d'envoi du statut de la chambre " + evenement.getChambreId()
+                    + ", nouvelle tentative dans " + delai + " ms");
+        }
+        outbox.marquerEchec(evenement, LocalDateTime.now().plus(delai, ChronoUnit.MILLIS), tronquer(erreur));
+    }
+    
+    private long calculerDelai(int tentatives) {
+        long delai = config.getOutboxDelaiInitial() << Math.min(tentatives - 1, 20);
+        return Math.min(delai, config.getOutboxDelaiMax());
+    }
+    
+    private static String tronquer(String erreur) {
+        if (erreur == null || erreur.length() <= 500) {
+            return erreur;
+        }
+        return erreur.substring(0, 500);
+    }
+}
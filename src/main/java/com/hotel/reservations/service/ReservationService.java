@@ -1,31 +1,55 @@
 package com.hotel.reservations.service;
 
+import com.hotel.reservations.concurrence.ExecuteurTaches;
+import com.hotel.reservations.config.AppConfig;
 import com.hotel.reservations.dto.RapportReservationsDTO;
 import com.hotel.reservations.dto.ReservationDTO;
+import com.hotel.reservations.dto.ReservationProjectionDTO;
 import com.hotel.reservations.entity.Reservation;
 import com.hotel.reservations.entity.StatutReservation;
+import com.hotel.reservations.event.ReservationModifiee;
 import com.hotel.reservations.exception.ChambreNonDisponibleException;
 import com.hotel.reservations.exception.ReservationException;
 import com.hotel.reservations.exception.ReservationNotFoundException;
+import com.hotel.reservations.exception.VersionObsoleteException;
 import com.hotel.reservations.mapper.ReservationMapper;
 import com.hotel.reservations.client.ChambreServiceClient;
 import com.hotel.reservations.client.ClientServiceClient;
 import com.hotel.reservations.dto.ChambreDTO;
 import com.hotel.reservations.dto.ClientDTO;
+import com.hotel.reservations.dto.DetailRapport;
+import com.hotel.reservations.dto.DisponibilitesDTO;
+import com.hotel.reservations.dto.LotReservationsDTO;
+import com.hotel.reservations.dto.PageDTO;
+import com.hotel.reservations.dto.ResultatLotDTO;
+import com.hotel.reservations.resilience.Echeance;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -39,18 +63,50 @@ public class ReservationService {
     
     private static final Logger LOGGER = Logger.getLogger(ReservationService.class.getName());
     
+    private static final int LIMITE_MAX_PAGE = 500;
+    private static final int TAILLE_PAGE_DEFAUT = 50;
+    private static final int TAILLE_LOT_EXPORT = 500;
+    private static final int TAILLE_PAGE_RAPPORT = 20;
+    private static final int TAILLE_MAX_LOT = 100;
+    
+    /** Champs de Reservation pouvant être demandés via le paramètre fields. */
+    private static final Set<String> CHAMPS_PROJETABLES = Set.of(
+            "id", "clientId", "chambreId", "dateDebut", "dateFin", "statut",
+            "montantTotal", "prixParNuit", "remarques", "dateCreation", "dateModification", "version");
+    
     @PersistenceContext(unitName = "HotelReservationPU")
     private EntityManager em;
     
     @Inject
     private ReservationMapper mapper;
     
+    @Inject
+    private AppConfig config;
+    
     @Inject
     private ChambreServiceClient chambreClient;
     
     @Inject
     private ClientServiceClient clientClient;
     
+    @Inject
+    private OutboxStatutChambreService outbox;
+    
+    @Inject
+    private IndexDisponibilite indexDisponibilite;
+    
+    @Inject
+    private StatistiquesReservations statistiques;
+    
+    @Inject
+    private Event<ReservationModifiee> evenements;
+    
+    @Inject
+    private Validator validator;
+    
+    @Inject
+    private ExecuteurTaches executeurTaches;
+    
     /**
      * Crée une nouvelle réservation.
      */
@@ -60,49 +116,160 @@ public class ReservationService {
         // Validation des dates
         validerDates(dto.getDateDebut(), dto.getDateFin());
         
-        // Vérifier la disponibilité de la chambre
-        verifierDisponibiliteChambre(dto.getChambreId(), dto.getDateDebut(), dto.getDateFin(), null);
+        // Lancer en parallèle les appels aux services externes (indépendants entre eux),
+        // chacun limité au temps restant avant l'échéance de la requête
+        Echeance echeance = Echeance.dans(config.getEcheanceRequete());
+        CompletableFuture<Boolean> disponibiliteFuture = CompletableFuture.supplyAsync(echeance.lier(
+                () -> chambreClient.verifierDisponibilite(dto.getChambreId(), dto.getDateDebut(), dto.getDateFin())),
+                executeurTaches);
+        CompletableFuture<ClientDTO> clientFuture = CompletableFuture.supplyAsync(echeance.lier(
+                () -> clientClient.getClient(dto.getClientId())), executeurTaches);
+        CompletableFuture<ChambreDTO> chambreFuture = CompletableFuture.supplyAsync(echeance.lier(
+                () -> chambreClient.getChambre(dto.getChambreId())), executeurTaches);
+        
+        // Vérifier les chevauchements dans nos réservations pendant les appels distants
+        verifierChevauchements(dto.getChambreId(), dto.getDateDebut(), dto.getDateFin(), null);
+        
+        // Vérifier la disponibilité auprès du service des chambres
+        if (!attendre(disponibiliteFuture)) {
+            throw new ChambreNonDisponibleException(dto.getChambreId());
+        }
         
         // Valider le client
-        ClientDTO client = clientClient.getClient(dto.getClientId());
+        ClientDTO client = attendre(clientFuture);
         if (client != null && client.isFraisImpayes()) {
             throw new ReservationException("CLIENT_FRAIS_IMPAYES", 
                 "Le client a des frais impayés et ne peut pas effectuer de réservation");
         }
         
         // Récupérer les informations de la chambre pour le prix
-        ChambreDTO chambre = chambreClient.getChambre(dto.getChambreId());
+        ChambreDTO chambre = attendre(chambreFuture);
         
         // Créer l'entité
-        Reservation reservation = mapper.toEntity(dto);
-        reservation.setStatut(StatutReservation.EN_ATTENTE);
-        
-        // Calculer le montant
-        if (chambre != null && chambre.getPrixParNuit() != null) {
-            reservation.setPrixParNuit(chambre.getPrixParNuit());
-        } else if (dto.getPrixParNuit() != null) {
-            reservation.setPrixParNuit(dto.getPrixParNuit());
-        } else {
-            reservation.setPrixParNuit(BigDecimal.valueOf(100)); // Prix par défaut
-        }
-        reservation.calculerMontantTotal();
+        Reservation reservation = nouvelleReservation(dto, chambre);
         
+        // L'identifiant est attribué dès persist() : l'insertion part au commit
         em.persist(reservation);
-        em.flush();
         
         LOGGER.info("Réservation créée avec succès, ID: " + reservation.getId());
+        evenements.fire(new ReservationModifiee(mapper.toDTO(reservation), null));
         
         // Enrichir le DTO avec les informations supplémentaires
-        ReservationDTO result = mapper.toDTO(reservation);
-        if (client != null) {
-            result.setNomClient(client.getNomComplet());
+        return enrichir(reservation, client, chambre);
+    }
+    
+    /**
+     * Crée un lot de réservations. Les contrôles sont mutualisés : une seule recherche
+     * de chevauchements pour l'ensemble des chambres, un appel par chambre et par client
+     * distincts, puis une insertion groupée (batch JDBC).
+     *
+     * En mode tout-ou-rien, aucune réservation n'est créée si un élément est refusé ;
+     * sinon les éléments valides sont créés et les refus signalés élément par élément.
+     */
+    public ResultatLotDTO creerReservations(LotReservationsDTO lot) {
+        List<ReservationDTO> dtos = lot.getReservations();
+        if (dtos == null || dtos.isEmpty()) {
+            throw new ReservationException("LOT_VIDE", "Le lot ne contient aucune réservation");
         }
-        if (chambre != null) {
-            result.setNumeroChambre(chambre.getNumero());
-            result.setTypeChambre(chambre.getType());
+        if (dtos.size() > TAILLE_MAX_LOT) {
+            throw new ReservationException("LOT_TROP_GRAND", "Un lot est limité à " + TAILLE_MAX_LOT + " réservations");
         }
+        LOGGER.info("Création d'un lot de " + dtos.size() + " réservations (tout ou rien: " + lot.isToutOuRien() + ")");
         
-        return result;
+        ResultatLotDTO resultat = new ResultatLotDTO(lot.isToutOuRien());
+        List<ResultatLotDTO.Element> elements = resultat.getResultats();
+        
+        // Validation locale de chaque élément
+        List<Integer> valides = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            elements.add(new ResultatLotDTO.Element(i));
+            try {
+                validerElementLot(dtos.get(i));
+                valides.add(i);
+            } catch (ReservationException e) {
+                refuser(elements.get(i), e);
+            }
+        }
+        
+        // Appels distants en parallèle : un par chambre et par client distincts,
+        // sous une échéance commune au lot
+        Echeance echeance = Echeance.dans(config.getEcheanceRequete());
+        Map<Long, CompletableFuture<ChambreDTO>> chambres = new HashMap<>();
+        Map<Long, CompletableFuture<ClientDTO>> clients = new HashMap<>();
+        Map<Integer, CompletableFuture<Boolean>> disponibilites = new HashMap<>();
+        for (int i : valides) {
+            ReservationDTO dto = dtos.get(i);
+            chambres.computeIfAbsent(dto.getChambreId(),
+                    id -> CompletableFuture.supplyAsync(echeance.lier(() -> chambreClient.getChambre(id)), executeurTaches));
+            clients.computeIfAbsent(dto.getClientId(),
+                    id -> CompletableFuture.supplyAsync(echeance.lier(() -> clientClient.getClient(id)), executeurTaches));
+            disponibilites.put(i, CompletableFuture.supplyAsync(echeance.lier(
+                    () -> chambreClient.verifierDisponibilite(dto.getChambreId(), dto.getDateDebut(), dto.getDateFin())),
+                    executeurTaches));
+        }
+        
+        // Chevauchements avec les réservations existantes, pendant les appels distants
+        Set<Integer> enConflit = chevauchementsLot(dtos, valides);
+        
+        // Décision par élément ; un élément accepté réserve sa chambre pour la suite du lot
+        List<Integer> acceptes = new ArrayList<>();
+        Map<Long, List<ReservationDTO>> reserveesDansLot = new HashMap<>();
+        for (int i : valides) {
+            ReservationDTO dto = dtos.get(i);
+            try {
+                if (enConflit.contains(i) || chevaucheLot(reserveesDansLot.get(dto.getChambreId()), dto)) {
+                    throw new ChambreNonDisponibleException(dto.getChambreId(),
+                        "La chambre est déjà réservée pour les dates demandées");
+                }
+                if (!attendre(disponibilites.get(i))) {
+                    throw new ChambreNonDisponibleException(dto.getChambreId());
+                }
+                ClientDTO client = attendre(clients.get(dto.getClientId()));
+                if (client != null && client.isFraisImpayes()) {
+                    throw new ReservationException("CLIENT_FRAIS_IMPAYES", 
+                        "Le client a des frais impayés et ne peut pas effectuer de réservation");
+                }
+                reserveesDansLot.computeIfAbsent(dto.getChambreId(), id -> new ArrayList<>()).add(dto);
+                acceptes.add(i);
+            } catch (ReservationException e) {
+                refuser(elements.get(i), e);
+            }
+        }
+        
+        int refusees = dtos.size() - acceptes.size();
+        if (lot.isToutOuRien() && refusees > 0) {
+            for (int i : acceptes) {
+                elements.get(i).setCode("LOT_ANNULE");
+                elements.get(i).setMessage("Non créée : au moins une réservation du lot a été refusée");
+            }
+            resultat.setNombreRefusees(dtos.size());
+            LOGGER.info("Lot refusé: " + refusees + " réservation(s) en erreur");
+            return resultat;
+        }
+        
+        // Insertion groupée
+        List<Reservation> creees = new ArrayList<>(acceptes.size());
+        for (int i : acceptes) {
+            ReservationDTO dto = dtos.get(i);
+            Reservation reservation = nouvelleReservation(dto, attendre(chambres.get(dto.getChambreId())));
+            em.persist(reservation);
+            creees.add(reservation);
+        }
+        
+        for (int n = 0; n < creees.size(); n++) {
+            Reservation reservation = creees.get(n);
+            ReservationDTO dto = dtos.get(acceptes.get(n));
+            evenements.fire(new ReservationModifiee(mapper.toDTO(reservation), null));
+            ResultatLotDTO.Element element = elements.get(acceptes.get(n));
+            element.setCree(true);
+            element.setReservation(enrichir(reservation,
+                    attendre(clients.get(dto.getClientId())), attendre(chambres.get(dto.getChambreId()))));
+        }
+        
+        resultat.setNombreCreees(creees.size());
+        resultat.setNombreRefusees(refusees);
+        LOGGER.info("Lot traité: " + creees.size() + " réservation(s) créée(s), " + refusees + " refusée(s)");
+        return resultat;
     }
     
     /**
@@ -148,10 +315,103 @@ public class ReservationService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Liste les réservations par page, triées par date de création décroissante.
+     * La pagination par curseur (dateCreation, id) évite de charger toute la table ;
+     * si des champs sont demandés, seules les colonnes correspondantes sont lues
+     * (sans entité gérée) et copiées dans une projection.
+     *
+     * @param statut filtre optionnel sur le statut
+     * @param clientId filtre optionnel sur le client
+     * @param curseur curseur retourné par la page précédente, ou null
+     * @param limit taille de la page, ou null pour la taille par défaut
+     * @param champs champs à retourner, ou null pour la réservation complète
+     */
+    public PageDTO<?> listerReservationsPage(StatutReservation statut, Long clientId, String curseur,
+                                             Integer limit, List<String> champs) {
+        if (champs != null) {
+            for (String champ : champs) {
+                if (!CHAMPS_PROJETABLES.contains(champ)) {
+                    throw new ReservationException("CHAMP_INVALIDE", "Champ inconnu: " + champ);
+                }
+            }
+        }
+        int taille = limit != null ? Math.min(Math.max(limit, 1), LIMITE_MAX_PAGE) : TAILLE_PAGE_DEFAUT;
+        Object[] position = curseur != null ? decoderCurseur(curseur) : null;
+        
+        if (champs == null) {
+            List<Reservation> lignes = lirePage("r", Reservation.class, statut, clientId, position, taille);
+            String curseurSuivant = null;
+            if (lignes.size() > taille) {
+                lignes = lignes.subList(0, taille);
+                Reservation derniere = lignes.get(taille - 1);
+                curseurSuivant = encoderCurseur(derniere.getDateCreation(), derniere.getId());
+            }
+            List<ReservationDTO> elements = lignes.stream()
+                    .map(mapper::toDTO)
+                    .collect(Collectors.toList());
+            return new PageDTO<>(elements, curseurSuivant);
+        }
+        
+        // Seules les colonnes demandées sont lues, plus la position du curseur (id, dateCreation)
+        StringBuilder selection = new StringBuilder("r.id, r.dateCreation");
+        for (String champ : champs) {
+            selection.append(", r.").append(champ);
+        }
+        List<Object[]> lignes = lirePage(selection.toString(), Object[].class, statut, clientId, position, taille);
+        String curseurSuivant = null;
+        if (lignes.size() > taille) {
+            lignes = lignes.subList(0, taille);
+            Object[] derniere = lignes.get(taille - 1);
+            curseurSuivant = encoderCurseur((LocalDateTime) derniere[1], (Long) derniere[0]);
+        }
+        List<ReservationProjectionDTO> elements = new ArrayList<>(lignes.size());
+        for (Object[] ligne : lignes) {
+            ReservationProjectionDTO element = new ReservationProjectionDTO();
+            for (int i = 0; i < champs.size(); i++) {
+                element.definir(champs.get(i), ligne[i + 2]);
+            }
+            elements.add(element);
+        }
+        return new PageDTO<>(elements, curseurSuivant);
+    }
+    
+    /**
+     * Parcourt les réservations par lots successifs et les transmet une à une au consommateur.
+     * Exécuté hors transaction : chaque lot est détaché dès sa lecture, la mémoire
+     * utilisée reste donc constante quel que soit le nombre de réservations.
+     *
+     * Pagination par clé plutôt que getResultStream() : hors transaction, le gestionnaire
+     * d'entités du conteneur est fermé à la fin de chaque appel et ne peut pas porter un
+     * curseur pendant tout l'export ; dans une transaction, un curseur garderait une
+     * connexion pendant toute l'écriture vers le client et accumulerait les entités lues
+     * dans le contexte de persistance.
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void parcourirReservations(StatutReservation statut, Long clientId, Consumer<ReservationDTO> consommateur) {
+        String curseur = null;
+        do {
+            PageDTO<?> page = listerReservationsPage(statut, clientId, curseur, TAILLE_LOT_EXPORT, null);
+            for (Object element : page.getElements()) {
+                consommateur.accept((ReservationDTO) element);
+            }
+            curseur = page.getCurseurSuivant();
+        } while (curseur != null);
+    }
+    
     /**
      * Modifie une réservation existante.
      */
     public ReservationDTO modifierReservation(Long id, @Valid ReservationDTO dto) {
+        return modifierReservation(id, dto, null);
+    }
+    
+    /**
+     * Modifie une réservation si sa version courante est celle attendue.
+     *
+     * @param versionAttendue version connue du client (If-Match), ou null pour ne pas la vérifier
+     */
+    public ReservationDTO modifierReservation(Long id, @Valid ReservationDTO dto, Integer versionAttendue) {
         LOGGER.info("Modification de la réservation ID: " + id);
         
         Reservation reservation = em.find(Reservation.class, id);
@@ -159,6 +419,10 @@ public class ReservationService {
             throw new ReservationNotFoundException(id);
         }
         
+        if (versionAttendue != null && !versionAttendue.equals(reservation.getVersion())) {
+            throw new VersionObsoleteException(id, reservation.getVersion());
+        }
+        
         if (!reservation.peutEtreModifiee()) {
             throw new ReservationException("MODIFICATION_IMPOSSIBLE", 
                 "La réservation ne peut pas être modifiée dans son état actuel: " + reservation.getStatut());
@@ -177,13 +441,19 @@ public class ReservationService {
             verifierDisponibiliteChambre(newChambreId, newDateDebut, newDateFin, id);
         }
         
+        StatutReservation statutPrecedent = reservation.getStatut();
         mapper.updateEntity(reservation, dto);
         reservation.calculerMontantTotal();
         
         em.merge(reservation);
+        // Incrémente la version maintenant pour la retourner (ETag) ; une modification
+        // concurrente est détectée ici par le verrouillage optimiste
+        em.flush();
         
         LOGGER.info("Réservation modifiée avec succès, ID: " + id);
-        return mapper.toDTO(reservation);
+        ReservationDTO result = mapper.toDTO(reservation);
+        evenements.fire(new ReservationModifiee(result, statutPrecedent));
+        return result;
     }
     
     /**
@@ -202,14 +472,19 @@ public class ReservationService {
                 "Seules les réservations en attente peuvent être confirmées");
         }
         
+        StatutReservation statutPrecedent = reservation.getStatut();
         reservation.setStatut(StatutReservation.CONFIRMEE);
         em.merge(reservation);
         
-        // Notifier le service des chambres
-        chambreClient.mettreAJourStatutChambre(reservation.getChambreId(), "RESERVEE");
+        // Notifier le service des chambres (envoi différé via l'outbox)
+        outbox.enregistrer(reservation.getChambreId(), "RESERVEE");
         
         LOGGER.info("Réservation confirmée avec succès, ID: " + id);
-        return mapper.toDTO(reservation);
+        // Version après mise à jour (ETag, statistiques)
+        em.flush();
+        ReservationDTO result = mapper.toDTO(reservation);
+        evenements.fire(new ReservationModifiee(result, statutPrecedent));
+        return result;
     }
     
     /**
@@ -228,14 +503,19 @@ public class ReservationService {
                 "La réservation ne peut pas être annulée dans son état actuel: " + reservation.getStatut());
         }
         
+        StatutReservation statutPrecedent = reservation.getStatut();
         reservation.setStatut(StatutReservation.ANNULEE);
         em.merge(reservation);
         
-        // Libérer la chambre
-        chambreClient.mettreAJourStatutChambre(reservation.getChambreId(), "LIBRE");
+        // Libérer la chambre (envoi différé via l'outbox)
+        outbox.enregistrer(reservation.getChambreId(), "LIBRE");
         
         LOGGER.info("Réservation annulée avec succès, ID: " + id);
-        return mapper.toDTO(reservation);
+        // Version après mise à jour (ETag, statistiques)
+        em.flush();
+        ReservationDTO result = mapper.toDTO(reservation);
+        evenements.fire(new ReservationModifiee(result, statutPrecedent));
+        return result;
     }
     
     /**
@@ -254,14 +534,19 @@ public class ReservationService {
                 "Le check-in n'est possible que pour les réservations confirmées");
         }
         
+        StatutReservation statutPrecedent = reservation.getStatut();
         reservation.setStatut(StatutReservation.EN_COURS);
         em.merge(reservation);
         
-        // Mettre à jour le statut de la chambre
-        chambreClient.mettreAJourStatutChambre(reservation.getChambreId(), "OCCUPEE");
+        // Mettre à jour le statut de la chambre (envoi différé via l'outbox)
+        outbox.enregistrer(reservation.getChambreId(), "OCCUPEE");
         
         LOGGER.info("Check-in effectué avec succès, ID: " + id);
-        return mapper.toDTO(reservation);
+        // Version après mise à jour (ETag, statistiques)
+        em.flush();
+        ReservationDTO result = mapper.toDTO(reservation);
+        evenements.fire(new ReservationModifiee(result, statutPrecedent));
+        return result;
     }
     
     /**
@@ -280,24 +565,107 @@ public class ReservationService {
                 "Le check-out n'est possible que pour les réservations en cours");
         }
         
+        StatutReservation statutPrecedent = reservation.getStatut();
         reservation.setStatut(StatutReservation.TERMINEE);
         em.merge(reservation);
         
-        // Libérer la chambre
-        chambreClient.mettreAJourStatutChambre(reservation.getChambreId(), "LIBRE");
+        // Libérer la chambre (envoi différé via l'outbox)
+        outbox.enregistrer(reservation.getChambreId(), "LIBRE");
         
         LOGGER.info("Check-out effectué avec succès, ID: " + id);
-        return mapper.toDTO(reservation);
+        // Version après mise à jour (ETag, statistiques)
+        em.flush();
+        ReservationDTO result = mapper.toDTO(reservation);
+        evenements.fire(new ReservationModifiee(result, statutPrecedent));
+        return result;
+    }
+    
+    /**
+     * Recherche les chambres libres sur une période, en une seule passe :
+     * chambres connues du Service Chambres moins les chambres occupées
+     * (index en mémoire ou une seule requête de plage).
+     */
+    public DisponibilitesDTO rechercherDisponibilites(LocalDate dateDebut, LocalDate dateFin) {
+        validerDates(dateDebut, dateFin);
+        
+        Set<Long> occupees;
+        if (indexDisponibilite.estPret()) {
+            occupees = indexDisponibilite.chambresOccupees(dateDebut, dateFin);
+        } else {
+            occupees = new HashSet<>(em.createNamedQuery("Reservation.findChambresOccupees", Long.class)
+                    .setParameter("dateDebut", dateDebut)
+                    .setParameter("dateFin", dateFin)
+                    .getResultList());
+        }
+        
+        List<Long> libres = chambreClient.listerChambres().stream()
+                .map(ChambreDTO::getId)
+                .filter(id -> !occupees.contains(id))
+                .sorted()
+                .collect(Collectors.toList());
+        
+        return new DisponibilitesDTO(dateDebut, dateFin, libres);
     }
     
     /**
      * Génère le rapport des réservations.
      */
     public RapportReservationsDTO genererRapport() {
-        LOGGER.info("Génération du rapport des réservations");
+        return genererRapport(DetailRapport.FULL, null, null, null);
+    }
+    
+    /**
+     * Génère le rapport des réservations avec le niveau de détail demandé.
+     * En mode NONE et PAGE, les compteurs sont calculés sans charger d'entité.
+     *
+     * @param detail niveau de détail des listes
+     * @param limit taille des pages (mode PAGE)
+     * @param curseurOccupations curseur de la page d'occupations précédente (mode PAGE)
+     * @param curseurAVenir curseur de la page de réservations à venir précédente (mode PAGE)
+     */
+    public RapportReservationsDTO genererRapport(DetailRapport detail, Integer limit,
+                                                 String curseurOccupations, String curseurAVenir) {
+        LOGGER.info("Génération du rapport des réservations (détail: " + detail + ")");
         
         RapportReservationsDTO rapport = new RapportReservationsDTO();
         
+        if (detail == DetailRapport.FULL) {
+            remplirRapportComplet(rapport);
+        } else {
+            remplirCompteurs(rapport);
+            if (detail == DetailRapport.PAGE) {
+                int taille = limit != null ? Math.min(Math.max(limit, 1), LIMITE_MAX_PAGE) : TAILLE_PAGE_RAPPORT;
+                remplirPageOccupations(rapport, taille, curseurOccupations);
+                remplirPageAVenir(rapport, taille, curseurAVenir);
+            }
+        }
+        
+        // Date de génération
+        rapport.setDateGeneration(LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")));
+        
+        LOGGER.info("Rapport généré avec succès");
+        return rapport;
+    }
+    
+    // --- Méthodes privées ---
+    
+    /**
+     * Remplit le rapport avec les compteurs et les listes complètes.
+     */
+    private void remplirRapportComplet(RapportReservationsDTO rapport) {
+        if (statistiques.estPret()) {
+            // Statistiques maintenues en mémoire : aucune requête
+            rapport.setTotalReservations((int) statistiques.getTotal());
+            List<ReservationDTO> occupations = statistiques.getOccupationsActuelles();
+            rapport.setOccupationsActuelles(occupations.size());
+            rapport.setListeOccupationsActuelles(occupations);
+            List<ReservationDTO> aVenir = statistiques.getReservationsAVenir();
+            rapport.setReservationsAVenir(aVenir.size());
+            rapport.setListeReservationsAVenir(aVenir);
+            rapport.setReservationsAnnulees((int) statistiques.getNombre(StatutReservation.ANNULEE));
+            return;
+        }
+        
         // Total des réservations
         Long total = em.createQuery("SELECT COUNT(r) FROM Reservation r", Long.class).getSingleResult();
         rapport.setTotalReservations(total.intValue());
@@ -315,20 +683,110 @@ public class ReservationService {
         rapport.setListeReservationsAVenir(aVenir.stream().map(mapper::toDTO).collect(Collectors.toList()));
         
         // Réservations annulées
-        Long annulees = em.createQuery(
-            "SELECT COUNT(r) FROM Reservation r WHERE r.statut = :statut", Long.class)
-            .setParameter("statut", StatutReservation.ANNULEE)
-            .getSingleResult();
-        rapport.setReservationsAnnulees(annulees.intValue());
+        rapport.setReservationsAnnulees(compterParStatut(StatutReservation.ANNULEE));
+    }
+    
+    /**
+     * Remplit uniquement les compteurs du rapport (statistiques en mémoire
+     * ou requêtes d'agrégation).
+     */
+    private void remplirCompteurs(RapportReservationsDTO rapport) {
+        if (statistiques.estPret()) {
+            rapport.setTotalReservations((int) statistiques.getTotal());
+            rapport.setOccupationsActuelles(statistiques.getNombreOccupationsActuelles());
+            rapport.setReservationsAVenir(statistiques.getNombreReservationsAVenir());
+            rapport.setReservationsAnnulees((int) statistiques.getNombre(StatutReservation.ANNULEE));
+            return;
+        }
         
-        // Date de génération
-        rapport.setDateGeneration(LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")));
+        Long total = em.createQuery("SELECT COUNT(r) FROM Reservation r", Long.class).getSingleResult();
+        rapport.setTotalReservations(total.intValue());
+        rapport.setOccupationsActuelles(compterParStatut(StatutReservation.EN_COURS));
+        Long aVenir = em.createNamedQuery("Reservation.countReservationsAVenir", Long.class).getSingleResult();
+        rapport.setReservationsAVenir(aVenir.intValue());
+        rapport.setReservationsAnnulees(compterParStatut(StatutReservation.ANNULEE));
+    }
+    
+    private int compterParStatut(StatutReservation statut) {
+        return em.createNamedQuery("Reservation.countByStatut", Long.class)
+                .setParameter("statut", statut)
+                .getSingleResult()
+                .intValue();
+    }
+    
+    /**
+     * Remplit une page des occupations en cours, triées par identifiant.
+     */
+    private void remplirPageOccupations(RapportReservationsDTO rapport, int taille, String curseur) {
+        long apresId = 0;
+        if (curseur != null) {
+            try {
+                apresId = Long.parseLong(new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8));
+            } catch (RuntimeException e) {
+                throw new ReservationException("CURSEUR_INVALIDE", "Curseur de pagination invalide");
+            }
+        }
         
-        LOGGER.info("Rapport généré avec succès");
-        return rapport;
+        List<ReservationDTO> page;
+        if (statistiques.estPret()) {
+            page = statistiques.pageOccupationsActuelles(apresId, taille + 1);
+        } else {
+            page = em.createNamedQuery("Reservation.pageOccupationsActuelles", Reservation.class)
+                    .setParameter("apresId", apresId)
+                    .setMaxResults(taille + 1)
+                    .getResultList().stream()
+                    .map(mapper::toDTO)
+                    .collect(Collectors.toList());
+        }
+        
+        if (page.size() > taille) {
+            page = page.subList(0, taille);
+            String dernierId = String.valueOf(page.get(taille - 1).getId());
+            rapport.setCurseurOccupationsSuivant(
+                    Base64.getUrlEncoder().withoutPadding().encodeToString(dernierId.getBytes(StandardCharsets.UTF_8)));
+        }
+        rapport.setListeOccupationsActuelles(new ArrayList<>(page));
     }
     
-    // --- Méthodes privées ---
+    /**
+     * Remplit une page des réservations à venir, triées par (dateDebut, id).
+     */
+    private void remplirPageAVenir(RapportReservationsDTO rapport, int taille, String curseur) {
+        LocalDate apresDate = null;
+        long apresId = 0;
+        if (curseur != null) {
+            try {
+                String valeur = new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8);
+                int separateur = valeur.indexOf('|');
+                apresDate = LocalDate.parse(valeur.substring(0, separateur));
+                apresId = Long.parseLong(valeur.substring(separateur + 1));
+            } catch (RuntimeException e) {
+                throw new ReservationException("CURSEUR_INVALIDE", "Curseur de pagination invalide");
+            }
+        }
+        
+        List<ReservationDTO> page;
+        if (statistiques.estPret()) {
+            page = statistiques.pageReservationsAVenir(apresDate, apresId, taille + 1);
+        } else {
+            page = em.createNamedQuery("Reservation.pageReservationsAVenir", Reservation.class)
+                    .setParameter("apresDate", apresDate != null ? apresDate : LocalDate.now())
+                    .setParameter("apresId", apresDate != null ? apresId : Long.MAX_VALUE)
+                    .setMaxResults(taille + 1)
+                    .getResultList().stream()
+                    .map(mapper::toDTO)
+                    .collect(Collectors.toList());
+        }
+        
+        if (page.size() > taille) {
+            page = page.subList(0, taille);
+            ReservationDTO dernier = page.get(taille - 1);
+            String position = dernier.getDateDebut() + "|" + dernier.getId();
+            rapport.setCurseurAVenirSuivant(
+                    Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8)));
+        }
+        rapport.setListeReservationsAVenir(new ArrayList<>(page));
+    }
     
     /**
      * Valide que les dates sont cohérentes.
@@ -349,7 +807,27 @@ public class ReservationService {
      * Vérifie la disponibilité d'une chambre pour les dates données.
      */
     private void verifierDisponibiliteChambre(Long chambreId, LocalDate dateDebut, LocalDate dateFin, Long excludeReservationId) {
-        // Vérifier les chevauchements dans nos réservations
+        verifierChevauchements(chambreId, dateDebut, dateFin, excludeReservationId);
+        
+        // Vérifier auprès du service des chambres
+        boolean disponible = chambreClient.verifierDisponibilite(chambreId, dateDebut, dateFin);
+        if (!disponible) {
+            throw new ChambreNonDisponibleException(chambreId);
+        }
+    }
+    
+    /**
+     * Vérifie les chevauchements avec nos réservations actives.
+     */
+    private void verifierChevauchements(Long chambreId, LocalDate dateDebut, LocalDate dateFin, Long excludeReservationId) {
+        if (indexDisponibilite.estPret()) {
+            if (!indexDisponibilite.chevauchements(chambreId, dateDebut, dateFin, excludeReservationId).isEmpty()) {
+                throw new ChambreNonDisponibleException(chambreId, 
+                    "La chambre est déjà réservée pour les dates demandées");
+            }
+            return;
+        }
+        
         TypedQuery<Reservation> query = em.createNamedQuery("Reservation.checkChevauchement", Reservation.class);
         query.setParameter("chambreId", chambreId);
         query.setParameter("dateDebut", dateDebut);
@@ -368,11 +846,188 @@ public class ReservationService {
             throw new ChambreNonDisponibleException(chambreId, 
                 "La chambre est déjà réservée pour les dates demandées");
         }
+    }
+    
+    /**
+     * Valide un élément d'un lot (contraintes du DTO et cohérence des dates).
+     */
+    private void validerElementLot(ReservationDTO dto) {
+        if (dto == null) {
+            throw new ReservationException("VALIDATION", "Réservation absente");
+        }
+        Set<ConstraintViolation<ReservationDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new ReservationException("VALIDATION", violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        validerDates(dto.getDateDebut(), dto.getDateFin());
+    }
+    
+    /**
+     * Retourne les éléments du lot qui chevauchent une réservation active existante,
+     * en une seule requête pour l'ensemble des chambres concernées.
+     */
+    private Set<Integer> chevauchementsLot(List<ReservationDTO> dtos, List<Integer> indices) {
+        Set<Integer> enConflit = new HashSet<>();
+        if (indices.isEmpty()) {
+            return enConflit;
+        }
         
-        // Vérifier auprès du service des chambres
-        boolean disponible = chambreClient.verifierDisponibilite(chambreId, dateDebut, dateFin);
-        if (!disponible) {
-            throw new ChambreNonDisponibleException(chambreId);
+        if (indexDisponibilite.estPret()) {
+            for (int i : indices) {
+                ReservationDTO dto = dtos.get(i);
+                if (!indexDisponibilite.chevauchements(dto.getChambreId(), dto.getDateDebut(), dto.getDateFin(), null).isEmpty()) {
+                    enConflit.add(i);
+                }
+            }
+            return enConflit;
+        }
+        
+        Set<Long> chambreIds = new HashSet<>();
+        LocalDate debutMin = null;
+        LocalDate finMax = null;
+        for (int i : indices) {
+            ReservationDTO dto = dtos.get(i);
+            chambreIds.add(dto.getChambreId());
+            debutMin = debutMin == null || dto.getDateDebut().isBefore(debutMin) ? dto.getDateDebut() : debutMin;
+            finMax = finMax == null || dto.getDateFin().isAfter(finMax) ? dto.getDateFin() : finMax;
+        }
+        
+        List<Object[]> existantes = em.createNamedQuery("Reservation.findIntervallesChambres", Object[].class)
+                .setParameter("chambreIds", chambreIds)
+                .setParameter("dateDebut", debutMin)
+                .setParameter("dateFin", finMax)
+                .getResultList();
+        
+        for (int i : indices) {
+            ReservationDTO dto = dtos.get(i);
+            for (Object[] ligne : existantes) {
+                if (dto.getChambreId().equals(ligne[1])
+                        && !((LocalDate) ligne[2]).isAfter(dto.getDateFin())
+                        && !((LocalDate) ligne[3]).isBefore(dto.getDateDebut())) {
+                    enConflit.add(i);
+                    break;
+                }
+            }
+        }
+        return enConflit;
+    }
+    
+    private static boolean chevaucheLot(List<ReservationDTO> reservees, ReservationDTO dto) {
+        if (reservees == null) {
+            return false;
+        }
+        for (ReservationDTO autre : reservees) {
+            if (!autre.getDateDebut().isAfter(dto.getDateFin()) && !autre.getDateFin().isBefore(dto.getDateDebut())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static void refuser(ResultatLotDTO.Element element, ReservationException e) {
+        element.setCode(e.getCode());
+        element.setMessage(e.getMessage());
+    }
+    
+    /**
+     * Construit une nouvelle réservation EN_ATTENTE avec son prix et son montant.
+     */
+    private Reservation nouvelleReservation(ReservationDTO dto, ChambreDTO chambre) {
+        Reservation reservation = mapper.toEntity(dto);
+        reservation.setStatut(StatutReservation.EN_ATTENTE);
+        
+        // Calculer le montant
+        if (chambre != null && chambre.getPrixParNuit() != null) {
+            reservation.setPrixParNuit(chambre.getPrixParNuit());
+        } else if (dto.getPrixParNuit() != null) {
+            reservation.setPrixParNuit(dto.getPrixParNuit());
+        } else {
+            reservation.setPrixParNuit(BigDecimal.valueOf(100)); // Prix par défaut
+        }
+        reservation.calculerMontantTotal();
+        return reservation;
+    }
+    
+    /**
+     * Convertit la réservation en DTO enrichi des informations client et chambre.
+     */
+    private ReservationDTO enrichir(Reservation reservation, ClientDTO client, ChambreDTO chambre) {
+        ReservationDTO result = mapper.toDTO(reservation);
+        if (client != null) {
+            result.setNomClient(client.getNomComplet());
+        }
+        if (chambre != null) {
+            result.setNumeroChambre(chambre.getNumero());
+            result.setTypeChambre(chambre.getType());
+        }
+        return result;
+    }
+    
+    /**
+     * Lit une page de réservations (une ligne de plus pour savoir s'il existe une page suivante).
+     */
+    private <T> List<T> lirePage(String selection, Class<T> type, StatutReservation statut, Long clientId,
+                                 Object[] position, int taille) {
+        StringBuilder jpql = new StringBuilder("SELECT ").append(selection).append(" FROM Reservation r WHERE 1 = 1");
+        if (statut != null) {
+            jpql.append(" AND r.statut = :statut");
+        }
+        if (clientId != null) {
+            jpql.append(" AND r.clientId = :clientId");
+        }
+        if (position != null) {
+            jpql.append(" AND (r.dateCreation < :dateCreation OR (r.dateCreation = :dateCreation AND r.id < :id))");
+        }
+        jpql.append(" ORDER BY r.dateCreation DESC, r.id DESC");
+        
+        TypedQuery<T> query = em.createQuery(jpql.toString(), type);
+        if (statut != null) {
+            query.setParameter("statut", statut);
+        }
+        if (clientId != null) {
+            query.setParameter("clientId", clientId);
+        }
+        if (position != null) {
+            query.setParameter("dateCreation", position[0]);
+            query.setParameter("id", position[1]);
+        }
+        query.setMaxResults(taille + 1);
+        query.setHint("eclipselink.jdbc.fetch-size", taille + 1);
+        return query.getResultList();
+    }
+    
+    private static String encoderCurseur(LocalDateTime dateCreation, Long id) {
+        String valeur = dateCreation + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valeur.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static Object[] decoderCurseur(String curseur) {
+        try {
+            String valeur = new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8);
+            int separateur = valeur.indexOf('|');
+            return new Object[] {
+                LocalDateTime.parse(valeur.substring(0, separateur)),
+                Long.valueOf(valeur.substring(separateur + 1))
+            };
+        } catch (RuntimeException e) {
+            throw new ReservationException("CURSEUR_INVALIDE", "Curseur de pagination invalide");
+        }
+    }
+    
+    /**
+     * Attend le résultat d'un appel asynchrone en propageant les exceptions métier.
+     */
+    private static <T> T attendre(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
         }
     }
 }
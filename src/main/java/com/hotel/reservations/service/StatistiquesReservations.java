@@ -0,0 +1,344 @@
+package com.hotel.reservations.service;
+
+import com.hotel.reservations.config.AppConfig;
+import com.hotel.reservations.dto.ReservationDTO;
+import com.hotel.reservations.entity.Reservation;
+import com.hotel.reservations.entity.StatutReservation;
+import com.hotel.reservations.event.ReservationModifiee;
+import com.hotel.reservations.mapper.ReservationMapper;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Statistiques des réservations maintenues incrémentalement pour le rapport.
+ *
+ * Les compteurs par statut, les occupations en cours et les réservations à venir
+ * sont reconstruits depuis la base au démarrage (puis périodiquement) et mis à jour
+ * à chaque changement d'état validé : la lecture du rapport ne coûte plus de requête.
+ * Chaque événement déplace les compteurs de son statut précédent vers le nouveau. Le
+ * dernier statut et la dernière version ne sont conservés que pour les réservations non
+ * terminées (ni annulées ni terminées) : un événement déjà reflété est ignoré, et la
+ * mémoire ne croît pas avec l'historique.
+ */
+@ApplicationScoped
+public class StatistiquesReservations {
+
+    private static final Logger LOGGER = Logger.getLogger(StatistiquesReservations.class.getName());
+
+    private static final Set<StatutReservation> STATUTS_TERMINAUX =
+            EnumSet.of(StatutReservation.ANNULEE, StatutReservation.TERMINEE);
+
+    private static final Comparator<ReservationDTO> ORDRE_A_VENIR =
+            Comparator.comparing(ReservationDTO::getDateDebut).thenComparing(ReservationDTO::getId);
+
+    @PersistenceContext(unitName = "HotelReservationPU")
+    private EntityManager em;
+
+    @Inject
+    private ReservationMapper mapper;
+
+    @Inject
+    private AppConfig config;
+
+    @Resource
+    private ManagedScheduledExecutorService scheduler;
+
+    private final Map<StatutReservation, AtomicLong> comptesParStatut = new EnumMap<>(StatutReservation.class);
+    // Réservations non terminées uniquement
+    private final Map<Long, Etat> etats = new ConcurrentHashMap<>();
+    private final Map<Long, ReservationDTO> occupations = new ConcurrentHashMap<>();
+    private final Map<Long, ReservationDTO> aVenirParId = new ConcurrentHashMap<>();
+    private final NavigableMap<ReservationDTO, ReservationDTO> aVenir = new ConcurrentSkipListMap<>(ORDRE_A_VENIR);
+
+    private final Object verrouReconstruction = new Object();
+    private List<ReservationModifiee> evenementsPendantReconstruction;
+    private volatile boolean pret;
+    private ScheduledFuture<?> tacheResynchronisation;
+
+    public StatistiquesReservations() {
+        for (StatutReservation statut : StatutReservation.values()) {
+            comptesParStatut.put(statut, new AtomicLong());
+        }
+    }
+
+    /**
+     * Construit les statistiques au lancement de l'application.
+     */
+    public void demarrer(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        if (!config.isStatistiquesActif()) {
+            LOGGER.info("Statistiques en mémoire désactivées");
+            return;
+        }
+        try {
+            reconstruire();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Construction des statistiques impossible, utilisation de la base", e);
+        }
+        long periode = config.getStatistiquesResynchronisation();
+        tacheResynchronisation = scheduler.scheduleWithFixedDelay(this::resynchroniser, periode, periode, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void arreter() {
+        if (tacheResynchronisation != null) {
+            tacheResynchronisation.cancel(false);
+        }
+    }
+
+    /**
+     * Indique si les statistiques peuvent être utilisées à la place de la base.
+     */
+    public boolean estPret() {
+        return pret;
+    }
+
+    public long getTotal() {
+        long total = 0;
+        for (AtomicLong compte : comptesParStatut.values()) {
+            total += compte.get();
+        }
+        return total;
+    }
+
+    public long getNombre(StatutReservation statut) {
+        return comptesParStatut.get(statut).get();
+    }
+
+    /**
+     * Réservations en cours (check-in effectué).
+     */
+    public List<ReservationDTO> getOccupationsActuelles() {
+        return new ArrayList<>(occupations.values());
+    }
+
+    public int getNombreOccupationsActuelles() {
+        return occupations.size();
+    }
+
+    /**
+     * Réservations confirmées ou en attente dont le début est postérieur à aujourd'hui,
+     * triées par date de début.
+     */
+    public List<ReservationDTO> getReservationsAVenir() {
+        return new ArrayList<>(vueAVenir().values());
+    }
+
+    public int getNombreReservationsAVenir() {
+        return vueAVenir().size();
+    }
+
+    /**
+     * Page d'occupations en cours triées par identifiant, après l'identifiant donné.
+     */
+    public List<ReservationDTO> pageOccupationsActuelles(long apresId, int taille) {
+        return occupations.values().stream()
+                .filter(r -> r.getId() > apresId)
+                .sorted(Comparator.comparing(ReservationDTO::getId))
+                .limit(taille)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Page de réservations à venir, après la position (dateDebut, id) donnée.
+     */
+    public List<ReservationDTO> pageReservationsAVenir(LocalDate apresDate, long apresId, int taille) {
+        NavigableMap<ReservationDTO, ReservationDTO> vue = vueAVenir();
+        if (apresDate != null) {
+            ReservationDTO position = new ReservationDTO();
+            position.setDateDebut(apresDate);
+            position.setId(apresId);
+            vue = vue.tailMap(position, false);
+        }
+        return vue.values().stream().limit(taille).collect(Collectors.toList());
+    }
+
+    /**
+     * Met à jour les statistiques après validation d'un changement sur une réservation.
+     */
+    public void surModification(@Observes(during = TransactionPhase.AFTER_SUCCESS) ReservationModifiee event) {
+        if (!config.isStatistiquesActif()) {
+            return;
+        }
+        synchronized (verrouReconstruction) {
+            if (evenementsPendantReconstruction != null) {
+                evenementsPendantReconstruction.add(event);
+                return;
+            }
+            appliquer(event, true);
+        }
+    }
+
+    // --- Méthodes privées ---
+
+    /**
+     * Séjours commençant après aujourd'hui ; ceux dont la date est passée sont retirés.
+     */
+    private NavigableMap<ReservationDTO, ReservationDTO> vueAVenir() {
+        // Borne exclusive : premier séjour commençant après aujourd'hui
+        ReservationDTO borne = new ReservationDTO();
+        borne.setDateDebut(LocalDate.now());
+        borne.setId(Long.MAX_VALUE);
+        NavigableMap<ReservationDTO, ReservationDTO> passees = aVenir.headMap(borne, true);
+        if (!passees.isEmpty()) {
+            for (ReservationDTO reservation : new ArrayList<>(passees.keySet())) {
+                aVenirParId.remove(reservation.getId(), reservation);
+                aVenir.remove(reservation);
+            }
+        }
+        return aVenir.tailMap(borne, false);
+    }
+
+    /**
+     * Recharge les statistiques depuis la base : compteurs agrégés par statut et
+     * réservations non terminées. Les événements reçus pendant la lecture sont mis en
+     * attente puis appliqués une fois les données remplacées ; ceux reçus avant le
+     * comptage y sont déjà reflétés et ne déplacent pas les compteurs.
+     */
+    private void reconstruire() {
+        synchronized (verrouReconstruction) {
+            evenementsPendantReconstruction = new ArrayList<>();
+        }
+        try {
+            List<Object[]> nonTerminees = em.createQuery(
+                    "SELECT r.id, r.statut, r.version FROM Reservation r WHERE r.statut NOT IN :terminaux", Object[].class)
+                    .setParameter("terminaux", STATUTS_TERMINAUX)
+                    .getResultList();
+            List<Reservation> enCours = em.createNamedQuery("Reservation.findOccupationsActuelles", Reservation.class)
+                    .getResultList();
+            List<Reservation> futures = em.createNamedQuery("Reservation.findReservationsAVenir", Reservation.class)
+                    .getResultList();
+            int dejaComptes;
+            synchronized (verrouReconstruction) {
+                dejaComptes = evenementsPendantReconstruction.size();
+            }
+            List<Object[]> comptes = em.createQuery(
+                    "SELECT r.statut, COUNT(r) FROM Reservation r GROUP BY r.statut", Object[].class)
+                    .getResultList();
+
+            synchronized (verrouReconstruction) {
+                comptesParStatut.values().forEach(compte -> compte.set(0));
+                for (Object[] compte : comptes) {
+                    comptesParStatut.get((StatutReservation) compte[0]).set((Long) compte[1]);
+                }
+                etats.clear();
+                for (Object[] ligne : nonTerminees) {
+                    etats.put((Long) ligne[0], new Etat((StatutReservation) ligne[1], (Integer) ligne[2]));
+                }
+                occupations.clear();
+                enCours.forEach(r -> occupations.put(r.getId(), mapper.toDTO(r)));
+                aVenir.clear();
+                aVenirParId.clear();
+                futures.forEach(r -> ajouterAVenir(mapper.toDTO(r)));
+
+                for (int i = 0; i < evenementsPendantReconstruction.size(); i++) {
+                    appliquer(evenementsPendantReconstruction.get(i), i >= dejaComptes);
+                }
+                evenementsPendantReconstruction = null;
+            }
+
+            pret = true;
+            LOGGER.info("Statistiques des réservations construites: " + getTotal() + " réservations, "
+                    + occupations.size() + " en cours, " + aVenir.size() + " à venir");
+        } finally {
+            synchronized (verrouReconstruction) {
+                evenementsPendantReconstruction = null;
+            }
+        }
+    }
+
+    private void resynchroniser() {
+        try {
+            reconstruire();
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Erreur lors de la resynchronisation des statistiques", e);
+        }
+    }
+
+    /**
+     * Applique un événement (sous verrouReconstruction). Un événement dont la version est
+     * déjà reflétée (arrivé après un plus récent) est ignoré ; sinon, si {@code compter},
+     * les compteurs passent du statut précédent de l'événement au nouveau.
+     */
+    private void appliquer(ReservationModifiee event, boolean compter) {
+        ReservationDTO reservation = event.getReservation();
+        Etat connu = etats.get(reservation.getId());
+        if (connu != null && connu.estPlusRecentQue(reservation.getVersion())) {
+            return;
+        }
+        StatutReservation precedent = connu != null ? connu.statut : event.getStatutPrecedent();
+        if (compter && precedent != reservation.getStatut()) {
+            if (precedent != null) {
+                comptesParStatut.get(precedent).decrementAndGet();
+            }
+            comptesParStatut.get(reservation.getStatut()).incrementAndGet();
+        }
+        if (STATUTS_TERMINAUX.contains(reservation.getStatut())) {
+            etats.remove(reservation.getId());
+        } else {
+            etats.put(reservation.getId(), new Etat(reservation.getStatut(), reservation.getVersion()));
+        }
+
+        occupations.remove(reservation.getId());
+        ReservationDTO ancienne = aVenirParId.remove(reservation.getId());
+        if (ancienne != null) {
+            aVenir.remove(ancienne);
+        }
+
+        if (reservation.getStatut() == StatutReservation.EN_COURS) {
+            occupations.put(reservation.getId(), reservation);
+        } else if (reservation.getStatut() == StatutReservation.CONFIRMEE
+                || reservation.getStatut() == StatutReservation.EN_ATTENTE) {
+            ajouterAVenir(reservation);
+        }
+    }
+
+    private void ajouterAVenir(ReservationDTO reservation) {
+        aVenirParId.put(reservation.getId(), reservation);
+        aVenir.put(reservation, reservation);
+    }
+
+    /**
+     * Dernier statut et dernière version appliqués pour une réservation.
+     */
+    private static final class Etat {
+
+        private final StatutReservation statut;
+        private final Integer version;
+
+        private Etat(StatutReservation statut, Integer version) {
+            this.statut = statut;
+            this.version = version;
+        }
+
+        private boolean estPlusRecentQue(Integer autreVersion) {
+            return version != null && autreVersion != null && autreVersion <= version;
+        }
+    }
+}
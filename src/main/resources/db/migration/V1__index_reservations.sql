@@ -0,0 +1,17 @@
+-- Index composites de la table reservations, un par famille de requêtes nommées
+
+-- Reservation.checkChevauchement, Reservation.findByChambreId
+CREATE INDEX idx_res_chambre_debut ON reservations (chambre_id, date_debut, date_fin, statut);
+
+-- Reservation.findByClientId
+CREATE INDEX idx_res_client_debut ON reservations (client_id, date_debut);
+
+-- Reservation.findByStatut, findOccupationsActuelles, findReservationsAVenir,
+-- countByStatut, countReservationsAVenir, pageOccupationsActuelles, pageReservationsAVenir
+CREATE INDEX idx_res_statut_debut ON reservations (statut, date_debut, id);
+
+-- Reservation.findAll et pagination par curseur (dateCreation DESC, id DESC)
+CREATE INDEX idx_res_creation_id ON reservations (date_creation DESC, id DESC);
+
+-- Reservation.findChambresOccupees, findIntervallesActifs
+CREATE INDEX idx_res_debut_fin ON reservations (date_debut, date_fin, chambre_id);
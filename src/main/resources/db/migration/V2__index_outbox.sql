@@ -0,0 +1,7 @@
+-- Index de la table outbox_statut_chambre
+
+-- EvenementStatutChambre.findAEnvoyer
+CREATE INDEX idx_outbox_prochaine ON outbox_statut_chambre (prochaine_tentative, id);
+
+-- EvenementStatutChambre.supprimerJusqua, EvenementStatutChambre.reporterJusqua
+CREATE INDEX idx_outbox_chambre_id ON outbox_statut_chambre (chambre_id, id);
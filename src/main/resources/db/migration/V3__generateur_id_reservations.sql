@@ -0,0 +1,14 @@
+-- Passage de Reservation.id de IDENTITY au générateur par table (id_generateurs)
+
+-- Bases existantes : la colonne id était créée GENERATED ALWAYS AS IDENTITY et refuserait
+-- les identifiants attribués par l'application (Derby 10.14+)
+-- @optionnelle
+ALTER TABLE reservations ALTER COLUMN id SET GENERATED BY DEFAULT;
+
+-- Le générateur reprend après le plus grand identifiant existant
+INSERT INTO id_generateurs (nom, valeur)
+    SELECT 'reservations', COALESCE(MAX(id), 0) FROM reservations
+    WHERE NOT EXISTS (SELECT 1 FROM id_generateurs WHERE nom = 'reservations');
+
+UPDATE id_generateurs SET valeur = (SELECT COALESCE(MAX(id), 0) FROM reservations)
+    WHERE nom = 'reservations' AND valeur < (SELECT COALESCE(MAX(id), 0) FROM reservations);